@@ -0,0 +1,50 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory indexes against the SQL queries they replace: the booking overlap check, plus fuzzy search and prefix
+ * suggestions, which have no SQL counterpart. Substring search is compared by catalog size in {@link SearchBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexBenchmark {
+
+    private static final int PAGE = 40;
+    private static final List<BookingStatus> STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    @Benchmark
+    public List<ItemDto> searchFuzzy(ShareItState state) {
+        return state.searchIndex.searchFuzzy("dril", 0, PAGE);
+    }
+
+    @Benchmark
+    public List<String> suggest(ShareItState state) {
+        return state.suggestIndex.suggest("dr", 10);
+    }
+
+    @Benchmark
+    public boolean overlapByIndex(ShareItState state) {
+        return state.intervalIndex.hasOverlap(state.itemId, state.now, state.now.plusDays(1));
+    }
+
+    @Benchmark
+    public boolean overlapBySql(ShareItState state) {
+        return state.bookingRepository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(state.itemId,
+                STATUSES, state.now.plusDays(1), state.now);
+    }
+}
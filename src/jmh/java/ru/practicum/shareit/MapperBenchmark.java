@@ -0,0 +1,115 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.OwnerItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.requests.ItemRequest;
+import ru.practicum.shareit.requests.ItemRequestMapper;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of one response page, and JSON rendering of full and compact booking pages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "40", "1000"})
+    private int size;
+
+    private final BookingMapper bookingMapper = new BookingMapper();
+    private final ItemMapper itemMapper = new ItemMapper();
+    private final OwnerItemMapper ownerItemMapper = new OwnerItemMapper();
+    private final ItemRequestMapper requestMapper = new ItemRequestMapper();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<Booking> bookings;
+    private List<Item> items;
+    private List<ItemRequest> requests;
+    private List<BookingDto> bookingDtos;
+    private List<BookingShortDto> compactBookings;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = new User(1L, "owner", "owner@mail.ru");
+        User booker = new User(2L, "booker", "booker@mail.ru");
+        bookings = new ArrayList<>();
+        items = new ArrayList<>();
+        requests = new ArrayList<>();
+        compactBookings = new ArrayList<>();
+        for (long i = 1; i <= size; i++) {
+            ItemRequest request = new ItemRequest(i, "request " + i, booker.getId(), now);
+            Item item = new Item(i, "item " + i, "description of item " + i, true, owner, request);
+            Booking booking = new Booking(i, now.plusHours(i), now.plusHours(i + 1), item, booker,
+                    BookingStatus.APPROVED);
+            requests.add(request);
+            items.add(item);
+            bookings.add(booking);
+            compactBookings.add(new BookingShortDto(i, booking.getStart(), booking.getEnd(), booking.getStatus(),
+                    item.getId(), item.getName(), booker.getId(), booker.getName()));
+        }
+        bookingDtos = bookingMapper.toDto(bookings);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingsToDto() {
+        return bookingMapper.toDto(bookings);
+    }
+
+    @Benchmark
+    public List<ItemDto> itemsToDto() {
+        return itemMapper.toDto(items);
+    }
+
+    @Benchmark
+    public List<ItemWithBookingDto> ownerItemsToDto() {
+        return ownerItemMapper.toDto(items);
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> requestsToDto() {
+        return requestMapper.convertToDto(requests);
+    }
+
+    @Benchmark
+    public byte[] bookingsToJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookingDtos);
+    }
+
+    @Benchmark
+    public byte[] compactBookingsToJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(compactBookings);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the service and repository timers: the same calls with metrics on and off. A cached search is
+ * almost nothing but the timer, a booking page adds one repository timer to real work.
+ * Run with {@code -Djmh.args="MetricsBenchmark -p bookings=10000"} to keep the trial count down.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private static final int PAGE = 40;
+
+    @Benchmark
+    public List<ItemDto> cachedSearch(MetricsState state) {
+        return state.itemService.getItemsBySearch("drill", 0, PAGE);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingsFirstPage(MetricsState state) {
+        return state.bookingService.getByUserAndState(state.bookerId, "PAST", 0, PAGE);
+    }
+
+    public static class MetricsState extends ShareItState {
+
+        @Param({"true", "false"})
+        public boolean metrics;
+
+        @Override
+        protected String[] arguments() {
+            return new String[]{"--spring.datasource.url=jdbc:h2:mem:benchmark-" + bookings + ";DB_CLOSE_DELAY=-1",
+                    "--shareit.metrics.service.enabled=" + metrics,
+                    "--management.metrics.data.repository.autotime.enabled=" + metrics};
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.utils.DataSeeder;
+import ru.practicum.shareit.utils.OffsetPageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Substring search by the trigram index against the SQL query it replaces, by catalog size. A common word fills
+ * the first page from the first items, a rare one makes both sides look through the whole catalog. H2 does not
+ * reuse the last result of a repeated query here, or the SQL side would measure that cache.
+ * Run with {@code -Djmh.args="SearchBenchmark -p bookings=1000 -jvmArgs -Xmx3g"}: the number of bookings does not
+ * matter here, and a million items need a bigger heap than the default.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final int PAGE = 40;
+
+    @Benchmark
+    public List<ItemDto> searchByIndex(CatalogState state) {
+        return state.searchIndex.search(state.text, 0, PAGE);
+    }
+
+    @Benchmark
+    public List<Item> searchBySql(CatalogState state) {
+        return state.itemRepository.findByText(state.text, new OffsetPageRequest(0, PAGE, Sort.by("id")));
+    }
+
+    public static class CatalogState extends ShareItState {
+
+        @Param({"10000", "100000", "1000000"})
+        public int items;
+
+        @Param({"dri", "number 99999"})
+        public String text;
+
+        @Override
+        protected DataSeeder seeder(JdbcTemplate jdbcTemplate) {
+            return new DataSeeder(jdbcTemplate, now, bookings, items);
+        }
+
+        @Override
+        protected String[] arguments() {
+            return new String[]{"--spring.datasource.url=jdbc:h2:mem:catalog-" + items +
+                    ";DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE"};
+        }
+    }
+}
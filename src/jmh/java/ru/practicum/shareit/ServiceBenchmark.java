@@ -0,0 +1,60 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service calls behind GET /items/{id}, GET /bookings and GET /items/search, including the first and a deep
+ * booking page by offset and by cursor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int PAGE = 40;
+
+    @Benchmark
+    public ItemWithBookingDto itemByOwner(ShareItState state) {
+        return state.itemService.getItemById(state.ownerId, state.itemId);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingsFirstPage(ShareItState state) {
+        return state.bookingService.getByUserAndState(state.bookerId, "ALL", 0, PAGE);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingsDeepPageByOffset(ShareItState state) {
+        return state.bookingService.getByUserAndState(state.bookerId, "ALL", state.deepOffset, PAGE);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingsDeepPageByCursor(ShareItState state) {
+        return state.bookingService.getByUserAndStateAfter(state.bookerId, "ALL", state.deepCursor, PAGE);
+    }
+
+    @Benchmark
+    public List<BookingShortDto> compactBookingsFirstPage(ShareItState state) {
+        return state.bookingService.getCompactByUserAndState(state.bookerId, "ALL", 0, PAGE, null);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItems(ShareItState state) {
+        return state.itemService.getItemsBySearch("drill", 0, PAGE);
+    }
+}
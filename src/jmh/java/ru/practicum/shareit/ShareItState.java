@@ -0,0 +1,94 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.ItemSuggestIndex;
+import ru.practicum.shareit.utils.DataSeeder;
+import ru.practicum.shareit.utils.LaunchArguments;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Application context on an in-memory H2 database seeded by {@link DataSeeder} with the given number of bookings.
+ */
+@State(Scope.Benchmark)
+public class ShareItState {
+
+    private static final int PAGE = 40;
+
+    @Param({"1000", "10000", "100000"})
+    public int bookings;
+
+    public Long ownerId;
+    public Long itemId;
+    public Long bookerId;
+    public int deepOffset;
+    public String deepCursor;
+    public LocalDateTime now;
+    public ItemService itemService;
+    public BookingService bookingService;
+    public ItemRepository itemRepository;
+    public BookingRepository bookingRepository;
+    public ItemSearchIndex searchIndex;
+    public ItemSuggestIndex suggestIndex;
+    public BookingIntervalIndex intervalIndex;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(LaunchArguments.quiet(arguments()));
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        searchIndex = context.getBean(ItemSearchIndex.class);
+        suggestIndex = context.getBean(ItemSuggestIndex.class);
+        intervalIndex = context.getBean(BookingIntervalIndex.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        DataSeeder seeder = seeder(jdbcTemplate);
+        seeder.seed();
+        itemId = 1L;
+        ownerId = (long) seeder.ownerOf(1);
+        bookerId = (long) seeder.heavyBooker();
+        deepOffset = bookings / 2 - PAGE;
+        deepCursor = jdbcTemplate.queryForObject("SELECT end_date, booking_id FROM bookings " +
+                        "WHERE booker_id = ? ORDER BY end_date DESC, booking_id DESC LIMIT 1 OFFSET ?",
+                (resultSet, row) -> new BookingCursor(resultSet.getTimestamp(1).toLocalDateTime(),
+                        resultSet.getLong(2)).encode(),
+                bookerId, deepOffset - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    protected DataSeeder seeder(JdbcTemplate jdbcTemplate) {
+        return new DataSeeder(jdbcTemplate, now, bookings);
+    }
+
+    protected String[] arguments() {
+        return new String[]{"--spring.datasource.url=jdbc:h2:mem:benchmark-" + bookings + ";DB_CLOSE_DELAY=-1"};
+    }
+}
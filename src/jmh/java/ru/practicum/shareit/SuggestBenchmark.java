@@ -0,0 +1,93 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphLayout;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSuggestIndex;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.utils.DataSeeder;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Suggestion latency and retained size of the trie over the given number of item names, built without Spring
+ * or a database. Names follow {@link DataSeeder}, a word and a unique number, so every name adds a token of its
+ * own. The retained size is measured with JOL after loading and printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g", "-Djdk.attach.allowAttachSelf"})
+public class SuggestBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int names;
+
+    @Param({"dr", "99"})
+    public String prefix;
+
+    private ItemSuggestIndex index;
+
+    @Setup(Level.Trial)
+    public void load() {
+        User owner = new User(1L, "owner", "owner@mail.ru");
+        List<Item> items = new ArrayList<>(names);
+        for (int i = 1; i <= names; i++) {
+            items.add(new Item((long) i, DataSeeder.WORDS[i % DataSeeder.WORDS.length] + " " + i, "", true, owner,
+                    null));
+        }
+        ItemRepository repository = (ItemRepository) Proxy.newProxyInstance(ItemRepository.class.getClassLoader(),
+                new Class<?>[]{ItemRepository.class}, new AvailableItems(items));
+        index = new ItemSuggestIndex(repository);
+        index.suggest(prefix, 1);
+
+        long bytes = GraphLayout.parseInstance(index).subtract(GraphLayout.parseInstance(repository)).totalSize();
+        System.out.printf("%nItemSuggestIndex over %d names retains %d bytes, %.1f MB per million names%n",
+                names, bytes, bytes * 1_000_000.0 / names / (1024 * 1024));
+    }
+
+    @Benchmark
+    public List<String> suggest() {
+        return index.suggest(prefix, 10);
+    }
+
+    /**
+     * Repository stub that hands the items out once, so they are not counted in the index.
+     */
+    private static class AvailableItems implements InvocationHandler {
+
+        private final AtomicReference<List<Item>> items;
+
+        private AvailableItems(List<Item> items) {
+            this.items = new AtomicReference<>(items);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if (!method.getName().equals("findByAvailableTrue")) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return items.getAndSet(List.of());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Page request construction as the services do it, with the sort built per call, and with a shared sort.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OffsetPageRequestBenchmark {
+
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "end");
+
+    private int from = 400;
+    private int size = 40;
+
+    @Benchmark
+    public Pageable offsetPageRequest() {
+        return new OffsetPageRequest(from, size, Sort.by(Sort.Direction.DESC, "end"));
+    }
+
+    @Benchmark
+    public Pageable offsetPageRequestWithSharedSort() {
+        return new OffsetPageRequest(from, size, SORT);
+    }
+
+    @Benchmark
+    public Pageable pageRequest() {
+        return PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "end"));
+    }
+}
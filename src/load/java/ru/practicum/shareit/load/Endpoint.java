@@ -0,0 +1,210 @@
+package ru.practicum.shareit.load;
+
+import java.net.http.HttpRequest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Requests of the load mix with their default weights. Deleting users and commenting are left out: the first
+ * destroys the seeded data, the second needs a finished booking that the run does not create.
+ */
+public enum Endpoint {
+
+    GET_USER("GET /users/{id}", 2) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            return target.get("/users/" + target.user(random));
+        }
+    },
+    GET_USERS("GET /users", 1) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            return target.get("/users");
+        }
+    },
+    ADD_ITEM("POST /items", 2) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            String name = target.nextName(random);
+            return target.post("/items", target.owner(random),
+                    Map.of("name", name, "description", "a " + name + " for rent", "available", true));
+        }
+    },
+    UPDATE_ITEM("PATCH /items/{id}", 2) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            int item = target.item(random);
+            return target.patch("/items/" + item, target.getSeeder().ownerOf(item),
+                    Map.of("description", "a " + target.nextName(random) + " for rent"));
+        }
+    },
+    GET_ITEM_AS_OWNER("GET /items/{id} (owner)", 8) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            int item = target.item(random);
+            return target.get("/items/" + item, target.getSeeder().ownerOf(item));
+        }
+    },
+    GET_ITEM("GET /items/{id}", 10) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            return target.get("/items/" + target.item(random), target.booker(random));
+        }
+    },
+    GET_OWNER_ITEMS("GET /items", 6) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            return target.get("/items?from=0&size=20", target.owner(random));
+        }
+    },
+    SEARCH("GET /items/search", 10) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            String word = target.word(random);
+            return target.get("/items/search?from=0&size=20&text="
+                    + word.substring(0, Math.min(word.length(), 3 + random.nextInt(3))), target.booker(random));
+        }
+    },
+    SUGGEST("GET /items/suggest", 8) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            return target.get("/items/suggest?prefix=" + target.word(random).substring(0, 1 + random.nextInt(3)),
+                    target.booker(random));
+        }
+    },
+    GET_COMMENTS("GET /items/{id}/comments", 4) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            return target.get("/items/" + target.item(random) + "/comments", target.booker(random));
+        }
+    },
+    ADD_BOOKING("POST /bookings", 5) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            LocalDateTime start = target.nextSlot();
+            return target.post("/bookings", target.booker(random), Map.of("itemId", target.item(random),
+                    "start", start.toString(), "end", start.plusHours(1).toString()));
+        }
+
+        @Override
+        void onSuccess(LoadTarget target, String body) {
+            target.addWaitingBooking(body);
+        }
+    },
+    ADD_BOOKINGS_BATCH("POST /bookings/batch", 1) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            List<Map<String, Object>> bookings = new ArrayList<>();
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                LocalDateTime start = target.nextSlot();
+                bookings.add(Map.of("itemId", target.item(random),
+                        "start", start.toString(), "end", start.plusHours(1).toString()));
+            }
+            return target.post("/bookings/batch", target.booker(random), bookings);
+        }
+
+        @Override
+        void onSuccess(LoadTarget target, String body) {
+            target.addWaitingBookings(body);
+        }
+    },
+    APPROVE_BOOKING("PATCH /bookings/{id}", 4) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            long[] booking = target.pollWaitingBooking();
+            if (booking == null) {
+                return null;
+            }
+            return target.patch("/bookings/" + booking[0] + "?approved=" + random.nextBoolean(), booking[1], null);
+        }
+    },
+    GET_BOOKING("GET /bookings/{id}", 4) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            int booking = target.booking(random);
+            return target.get("/bookings/" + booking, target.getSeeder().bookerOf(booking));
+        }
+    },
+    GET_BOOKER_BOOKINGS("GET /bookings", 8) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            return target.get("/bookings?state=" + state(random) + "&from=0&size=20", target.booker(random));
+        }
+    },
+    GET_COMPACT_BOOKINGS("GET /bookings?view=compact", 3) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            return target.get("/bookings?view=compact&state=" + state(random) + "&from=0&size=20",
+                    target.booker(random));
+        }
+    },
+    GET_OWNER_BOOKINGS("GET /bookings/owner", 6) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            return target.get("/bookings/owner?state=" + state(random) + "&from=0&size=20", target.owner(random));
+        }
+    },
+    ADD_REQUEST("POST /requests", 1) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            return target.post("/requests", target.booker(random),
+                    Map.of("description", "need a " + target.word(random)));
+        }
+    },
+    GET_REQUESTS("GET /requests", 2) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            return target.get("/requests", target.getSeeder().bookerOf(target.request(random)));
+        }
+    },
+    GET_OTHER_REQUESTS("GET /requests/all", 3) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            return target.get("/requests/all?from=0&size=20", target.user(random));
+        }
+    },
+    GET_REQUEST("GET /requests/{id}", 2) {
+        @Override
+        HttpRequest request(LoadTarget target, Random random) {
+            return target.get("/requests/" + target.request(random), target.user(random));
+        }
+    };
+
+    /**
+     * Bookings per batch request: its throughput times this is comparable with {@link #ADD_BOOKING}.
+     */
+    static final int BATCH_SIZE = 10;
+
+    private static final String[] STATES = {"ALL", "ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+
+    private final String title;
+    private final int weight;
+
+    Endpoint(String title, int weight) {
+        this.title = title;
+        this.weight = weight;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Returns the next request, or null when there is nothing to send right now.
+     */
+    abstract HttpRequest request(LoadTarget target, Random random);
+
+    void onSuccess(LoadTarget target, String body) {
+    }
+
+    private static String state(Random random) {
+        return STATES[random.nextInt(STATES.length)];
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One closed-loop client: sends the next request as soon as the previous response arrives and records the
+ * latency in microseconds once the warmup is over.
+ */
+public class LoadClient implements Runnable {
+
+    private final HttpClient http;
+    private final LoadConfig config;
+    private final LoadTarget target;
+    private final long measureFrom;
+    private final long stopAt;
+    private final Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Long> errors = new EnumMap<>(Endpoint.class);
+
+    public LoadClient(HttpClient http, LoadConfig config, LoadTarget target, long measureFrom, long stopAt) {
+        this.http = http;
+        this.config = config;
+        this.target = target;
+        this.measureFrom = measureFrom;
+        this.stopAt = stopAt;
+    }
+
+    @Override
+    public void run() {
+        Random random = ThreadLocalRandom.current();
+        while (System.nanoTime() < stopAt && !Thread.currentThread().isInterrupted()) {
+            Endpoint endpoint = config.next(random);
+            HttpRequest request = endpoint.request(target, random);
+            if (request == null) {
+                continue;
+            }
+            long start = System.nanoTime();
+            boolean success = send(endpoint, request);
+            long end = System.nanoTime();
+            if (start >= measureFrom && end <= stopAt) {
+                histograms.computeIfAbsent(endpoint, e -> new Histogram(3)).recordValue((end - start) / 1000);
+                if (!success) {
+                    errors.merge(endpoint, 1L, Long::sum);
+                }
+            }
+        }
+    }
+
+    public Map<Endpoint, Histogram> getHistograms() {
+        return histograms;
+    }
+
+    public Map<Endpoint, Long> getErrors() {
+        return errors;
+    }
+
+    private boolean send(Endpoint endpoint, HttpRequest request) {
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                return false;
+            }
+            endpoint.onSuccess(target, response.body());
+            return true;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.load;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Load run settings, parsed from key=value arguments. Arguments starting with -- are handed to the application.
+ */
+@Getter
+public class LoadConfig {
+
+    private int clients = 4 * Runtime.getRuntime().availableProcessors();
+    private int warmupSeconds = 10;
+    private int durationSeconds = 30;
+    private int bookings = 10_000;
+    private String database = "h2";
+    private String label = "local";
+    private Path report = Path.of("target", "load-report.json");
+    private Path baseline;
+    private final Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+    private final List<String> applicationArguments = new ArrayList<>();
+    private Endpoint[] endpoints;
+    private int[] cumulativeWeights;
+
+    public static LoadConfig parse(String... args) {
+        LoadConfig config = new LoadConfig();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                config.applicationArguments.add(arg);
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Ожидался аргумент вида ключ=значение: " + arg);
+            }
+            config.set(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        if (config.mix.isEmpty()) {
+            for (Endpoint endpoint : Endpoint.values()) {
+                config.mix.put(endpoint, endpoint.getWeight());
+            }
+        }
+        config.buildMix();
+        return config;
+    }
+
+    public Endpoint next(Random random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    public boolean isPostgres() {
+        return "postgres".equals(database);
+    }
+
+    private void set(String key, String value) {
+        switch (key) {
+            case "clients":
+                clients = Integer.parseInt(value);
+                break;
+            case "warmup":
+                warmupSeconds = Integer.parseInt(value);
+                break;
+            case "duration":
+                durationSeconds = Integer.parseInt(value);
+                break;
+            case "bookings":
+                bookings = Integer.parseInt(value);
+                break;
+            case "database":
+                if (!"h2".equals(value) && !"postgres".equals(value)) {
+                    throw new IllegalArgumentException("Неизвестная база данных: " + value);
+                }
+                database = value;
+                break;
+            case "label":
+                label = value;
+                break;
+            case "report":
+                report = Path.of(value);
+                break;
+            case "baseline":
+                baseline = Path.of(value);
+                break;
+            case "mix":
+                for (String entry : value.split(",")) {
+                    String[] parts = entry.split(":");
+                    mix.put(Endpoint.valueOf(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестный параметр нагрузки: " + key);
+        }
+    }
+
+    private void buildMix() {
+        mix.values().removeIf(weight -> weight <= 0);
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("В смеси нагрузки нет ни одного запроса");
+        }
+        endpoints = mix.keySet().toArray(new Endpoint[0]);
+        cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += mix.get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merged results of all clients: a latency table per endpoint, throughput per core, a JSON copy for later
+ * comparison and the difference against a previous report when one is given.
+ */
+public class LoadReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LoadConfig config;
+    private final Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Long> errors = new EnumMap<>(Endpoint.class);
+    private final int cores = Runtime.getRuntime().availableProcessors();
+
+    public LoadReport(LoadConfig config, List<LoadClient> clients) {
+        this.config = config;
+        for (LoadClient client : clients) {
+            client.getHistograms().forEach((endpoint, histogram) ->
+                    histograms.computeIfAbsent(endpoint, e -> new Histogram(3)).add(histogram));
+            client.getErrors().forEach((endpoint, count) -> errors.merge(endpoint, count, Long::sum));
+        }
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%n%s: %d clients, %d bookings, %s, %d s%n", config.getLabel(), config.getClients(),
+                config.getBookings(), config.getDatabase(), config.getDurationSeconds());
+        out.printf("%-30s %9s %7s %9s %9s %9s %9s %9s%n", "endpoint", "count", "errors", "rps", "p50 ms", "p99 ms",
+                "p999 ms", "max ms");
+        histograms.forEach((endpoint, histogram) -> out.printf("%-30s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint.getTitle(), histogram.getTotalCount(), errors.getOrDefault(endpoint, 0L),
+                rate(histogram.getTotalCount()), millis(histogram, 50), millis(histogram, 99),
+                millis(histogram, 99.9), histogram.getMaxValue() / MICROS_PER_MILLI));
+        out.printf("throughput %.1f rps, %.1f rps per core (%d cores, shared with the application)%n",
+                throughput(), throughput() / cores, cores);
+    }
+
+    public void write(ObjectMapper objectMapper) throws IOException {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        histograms.forEach((endpoint, histogram) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("count", histogram.getTotalCount());
+            row.put("errors", errors.getOrDefault(endpoint, 0L));
+            row.put("rps", rate(histogram.getTotalCount()));
+            row.put("p50", millis(histogram, 50));
+            row.put("p99", millis(histogram, 99));
+            row.put("p999", millis(histogram, 99.9));
+            row.put("max", histogram.getMaxValue() / MICROS_PER_MILLI);
+            endpoints.put(endpoint.name(), row);
+        });
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", config.getLabel());
+        report.put("database", config.getDatabase());
+        report.put("clients", config.getClients());
+        report.put("bookings", config.getBookings());
+        report.put("durationSeconds", config.getDurationSeconds());
+        report.put("cores", cores);
+        report.put("throughput", throughput());
+        report.put("throughputPerCore", throughput() / cores);
+        report.put("endpoints", endpoints);
+        if (config.getReport().getParent() != null) {
+            Files.createDirectories(config.getReport().getParent());
+        }
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(config.getReport().toFile(), report);
+    }
+
+    public void compare(ObjectMapper objectMapper, PrintStream out) throws IOException {
+        JsonNode baseline = objectMapper.readTree(config.getBaseline().toFile());
+        out.printf("%nagainst %s: throughput per core %+.1f%%%n", baseline.path("label").asText(),
+                change(baseline.path("throughputPerCore").asDouble(), throughput() / cores));
+        out.printf("%-30s %12s %12s %9s%n", "endpoint", "p99 before", "p99 now", "change");
+        histograms.forEach((endpoint, histogram) -> {
+            JsonNode before = baseline.path("endpoints").path(endpoint.name());
+            if (before.isMissingNode()) {
+                return;
+            }
+            double p99 = millis(histogram, 99);
+            out.printf("%-30s %12.2f %12.2f %+8.1f%%%n", endpoint.getTitle(), before.path("p99").asDouble(), p99,
+                    change(before.path("p99").asDouble(), p99));
+        });
+    }
+
+    private double throughput() {
+        return rate(histograms.values().stream().mapToLong(Histogram::getTotalCount).sum());
+    }
+
+    private double rate(long count) {
+        return (double) count / config.getDurationSeconds();
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static double change(double before, double now) {
+        return before == 0 ? 0 : (now - before) * 100 / before;
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.utils.DataSeeder;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running application under load: builds requests against the seeded data and keeps the bookings created
+ * during the run until their owners approve them.
+ */
+public class LoadTarget {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final URI base;
+    private final DataSeeder seeder;
+    private final LocalDateTime now;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong slots = new AtomicLong();
+    private final AtomicLong names = new AtomicLong();
+    private final Queue<long[]> waitingBookings = new ConcurrentLinkedQueue<>();
+
+    public LoadTarget(URI base, DataSeeder seeder, LocalDateTime now, ObjectMapper objectMapper) {
+        this.base = base;
+        this.seeder = seeder;
+        this.now = now;
+        this.objectMapper = objectMapper;
+    }
+
+    public HttpRequest get(String path, long userId) {
+        return builder(path, userId).GET().build();
+    }
+
+    public HttpRequest get(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(TIMEOUT).GET().build();
+    }
+
+    public HttpRequest post(String path, long userId, Object body) {
+        return builder(path, userId).POST(json(body)).build();
+    }
+
+    public HttpRequest patch(String path, long userId, Map<String, Object> body) {
+        return builder(path, userId).method("PATCH", json(body)).build();
+    }
+
+    public long user(Random random) {
+        return 1 + random.nextInt(seeder.getUsers());
+    }
+
+    public long owner(Random random) {
+        return 1 + random.nextInt(seeder.getOwners());
+    }
+
+    public long booker(Random random) {
+        return seeder.heavyBooker() + random.nextInt(seeder.getUsers() - seeder.getOwners());
+    }
+
+    public int item(Random random) {
+        return 1 + random.nextInt(seeder.getItems());
+    }
+
+    public int booking(Random random) {
+        return 1 + random.nextInt(seeder.getBookings());
+    }
+
+    public int request(Random random) {
+        return 1 + random.nextInt(seeder.getRequests());
+    }
+
+    public String word(Random random) {
+        return DataSeeder.WORDS[random.nextInt(DataSeeder.WORDS.length)];
+    }
+
+    public DataSeeder getSeeder() {
+        return seeder;
+    }
+
+    public String nextName(Random random) {
+        return word(random) + " " + names.incrementAndGet();
+    }
+
+    public LocalDateTime nextSlot() {
+        return now.plusYears(1).plusHours(2 * slots.incrementAndGet());
+    }
+
+    public void addWaitingBooking(String response) {
+        addWaitingBooking(readTree(response));
+    }
+
+    public void addWaitingBookings(String response) {
+        for (JsonNode result : readTree(response)) {
+            if (result.hasNonNull("booking")) {
+                addWaitingBooking(result.get("booking"));
+            }
+        }
+    }
+
+    public long[] pollWaitingBooking() {
+        return waitingBookings.poll();
+    }
+
+    private void addWaitingBooking(JsonNode booking) {
+        long ownerId = booking.path("item").path("owner").path("id").asLong();
+        waitingBookings.add(new long[]{booking.path("id").asLong(), ownerId});
+    }
+
+    private HttpRequest.Builder builder(String path, long userId) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(TIMEOUT)
+                .header(USER_HEADER, String.valueOf(userId))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        try {
+            return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
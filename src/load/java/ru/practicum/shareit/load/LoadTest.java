@@ -0,0 +1,85 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.utils.DataSeeder;
+import ru.practicum.shareit.utils.LaunchArguments;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the application on a random port over an in-memory H2 or the local Postgres, seeds it with
+ * {@link DataSeeder} and drives the configured request mix from closed-loop clients.
+ * On Postgres the run gets a schema of its own, so startup's data.sql and the seeded rows never touch the data of
+ * the default schema.
+ * Run with {@code mvn -Pload test-compile exec:exec -Dload.args="clients=64 duration=60"}.
+ */
+public class LoadTest {
+
+    static final String POSTGRES_SCHEMA = "shareit_load";
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.parse(args);
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0"));
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ShareItApp.class);
+        if (config.isPostgres()) {
+            arguments.add("--spring.datasource.hikari.connection-init-sql=CREATE SCHEMA IF NOT EXISTS " +
+                    POSTGRES_SCHEMA);
+            arguments.add("--spring.datasource.hikari.schema=" + POSTGRES_SCHEMA);
+        } else {
+            builder.profiles("test");
+            arguments.add("--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1");
+        }
+        arguments.addAll(config.getApplicationArguments());
+
+        String[] launchArguments = LaunchArguments.quiet(arguments.toArray(new String[0]));
+        try (ConfigurableApplicationContext context = builder.run(launchArguments)) {
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            DataSeeder seeder = new DataSeeder(context.getBean(JdbcTemplate.class), now, config.getBookings());
+            seeder.seed();
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadTarget target = new LoadTarget(URI.create("http://localhost:" + port), seeder, now, objectMapper);
+
+            LoadReport report = run(config, target);
+            report.print(System.out);
+            report.write(objectMapper);
+            System.out.println("report written to " + config.getReport().toAbsolutePath());
+            if (config.getBaseline() != null) {
+                report.compare(objectMapper, System.out);
+            }
+        }
+    }
+
+    private static LoadReport run(LoadConfig config, LoadTarget target) throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+        List<LoadClient> clients = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(config.getClients());
+        for (int i = 0; i < config.getClients(); i++) {
+            LoadClient client = new LoadClient(http, config, target, measureFrom, stopAt);
+            clients.add(client);
+            executor.execute(client);
+        }
+        executor.shutdown();
+        long timeout = config.getWarmupSeconds() + config.getDurationSeconds() + 60L;
+        if (!executor.awaitTermination(timeout, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+            throw new IllegalStateException("Клиенты нагрузки не завершились вовремя");
+        }
+        return new LoadReport(config, clients);
+    }
+}
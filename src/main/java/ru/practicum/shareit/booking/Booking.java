@@ -10,12 +10,17 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 @ToString
 @Entity
 @Table(name = "bookings")
+@NamedEntityGraph(name = Booking.WITH_ITEM_AND_BOOKER,
+        attributeNodes = {@NamedAttributeNode(value = "item", subgraph = "item"), @NamedAttributeNode("booker")},
+        subgraphs = @NamedSubgraph(name = "item",
+                attributeNodes = {@NamedAttributeNode("owner"), @NamedAttributeNode("request")}))
 public class Booking {
 
+    public static final String WITH_ITEM_AND_BOOKER = "Booking.withItemAndBooker";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "booking_id")
@@ -27,14 +32,47 @@ public class Booking {
     @Column(name = "end_date")
     private LocalDateTime end;
 
-    @ManyToOne(cascade = CascadeType.MERGE)
+    @ToString.Exclude
+    @ManyToOne(cascade = CascadeType.MERGE, optional = false)
     @JoinColumn(name = "item_id")
     private Item item;
 
-    @ManyToOne(cascade = CascadeType.MERGE)
+    @ToString.Exclude
+    @ManyToOne(cascade = CascadeType.MERGE, optional = false)
     @JoinColumn(name = "booker_id")
     private User booker;
 
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(name = "item_id", insertable = false, updatable = false)
+    private Long itemId;
+
+    @Column(name = "booker_id", insertable = false, updatable = false)
+    private Long bookerId;
+
+    public Booking(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, BookingStatus status) {
+        this(id, start, end, item, booker, status, null);
+    }
+
+    public Booking(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, BookingStatus status,
+                   Long ownerId) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.item = item;
+        this.booker = booker;
+        this.status = status;
+        this.ownerId = ownerId;
+    }
+
+    @PrePersist
+    private void fillOwnerId() {
+        if (ownerId == null && item != null && item.getOwner() != null) {
+            ownerId = item.getOwner().getId();
+        }
+    }
 }
\ No newline at end of file
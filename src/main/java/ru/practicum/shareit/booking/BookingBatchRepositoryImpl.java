@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+public class BookingBatchRepositoryImpl implements BookingBatchRepository {
+
+    private static final int BATCH_SIZE = 50;
+    private static final String INSERT = "INSERT INTO bookings " +
+            "(start_date, end_date, item_id, booker_id, status, owner_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Booking> insertAll(List<Booking> bookings) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT,
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < bookings.size(); from += BATCH_SIZE) {
+                    List<Booking> chunk = bookings.subList(from, Math.min(from + BATCH_SIZE, bookings.size()));
+                    for (Booking booking : chunk) {
+                        statement.setObject(1, booking.getStart());
+                        statement.setObject(2, booking.getEnd());
+                        statement.setLong(3, booking.getItem().getId());
+                        statement.setLong(4, booking.getBooker().getId());
+                        statement.setString(5, booking.getStatus().name());
+                        statement.setLong(6, booking.getOwnerId());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (Booking booking : chunk) {
+                            if (!keys.next()) {
+                                throw new IllegalStateException("Сгенерированных ключей меньше, чем добавленных "
+                                        + "бронирований: " + chunk.size());
+                            }
+                            booking.setId(keys.getLong("booking_id"));
+                        }
+                    }
+                }
+            }
+            return bookings;
+        });
+    }
+}
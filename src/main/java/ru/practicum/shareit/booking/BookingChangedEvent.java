@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+
+@Getter
+@AllArgsConstructor
+public class BookingChangedEvent {
+
+    private final Long ownerId;
+
+    private final BookingEventDto booking;
+}
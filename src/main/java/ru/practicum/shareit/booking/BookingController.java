@@ -1,19 +1,32 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingApproveResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 import java.util.List;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @Validated
 public class BookingController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int MAX_BATCH_SIZE = 100;
+
     private final BookingService service;
 
     public BookingController(BookingService service) {
@@ -26,6 +39,13 @@ public class BookingController {
         return service.add(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> addAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                              List<@Valid BookingDto> bookingDtos) {
+        return service.addAll(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto makeApproved(@RequestHeader("X-Sharer-User-Id") Long userId,
                                    @PathVariable Long bookingId,
@@ -33,28 +53,94 @@ public class BookingController {
         return service.makeApprove(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public BookingApproveResultDto makeApprovedAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @RequestParam(value = "approved") boolean approved,
+                                                   @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                   List<@NotNull Long> bookingIds) {
+        return service.makeApproveAll(userId, bookingIds, approved);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return service.subscribe(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId) {
         return service.getById(userId, bookingId);
     }
 
     @GetMapping
-    public List<BookingDto> getByUserAndState(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @RequestParam(value = "state", defaultValue = "ALL") String state,
-                                              @RequestParam(value = "from", defaultValue = "0")
-                                              @PositiveOrZero Integer from,
-                                              @RequestParam(value = "size", defaultValue = "40")
-                                              @Positive Integer size) {
-        return service.getByUserAndState(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getByUserAndState(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                              @RequestParam(value = "state", defaultValue = "ALL")
+                                                              String state,
+                                                              @RequestParam(value = "from", defaultValue = "0")
+                                                              @PositiveOrZero Integer from,
+                                                              @RequestParam(value = "size", defaultValue = "40")
+                                                              @Positive Integer size,
+                                                              @RequestParam(value = "cursor", required = false)
+                                                              String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(service.getByUserAndState(userId, state, from, size));
+        }
+        return withNextCursor(service.getByUserAndStateAfter(userId, state, cursor, size), size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getByOwnerAndState(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                               @RequestParam(value = "state", defaultValue = "ALL") String state,
-                                               @RequestParam(value = "from", defaultValue = "0")
-                                               @PositiveOrZero Integer from,
-                                               @RequestParam(value = "size", defaultValue = "40")
-                                               @Positive Integer size) {
-        return service.getByOwnerAndState(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getByOwnerAndState(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                               @RequestParam(value = "state", defaultValue = "ALL")
+                                                               String state,
+                                                               @RequestParam(value = "from", defaultValue = "0")
+                                                               @PositiveOrZero Integer from,
+                                                               @RequestParam(value = "size", defaultValue = "40")
+                                                               @Positive Integer size,
+                                                               @RequestParam(value = "cursor", required = false)
+                                                               String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(service.getByOwnerAndState(userId, state, from, size));
+        }
+        return withNextCursor(service.getByOwnerAndStateAfter(userId, state, cursor, size), size);
+    }
+
+    @GetMapping(params = "view=compact")
+    public ResponseEntity<List<BookingShortDto>> getCompactByUserAndState(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(value = "state", defaultValue = "ALL") String state,
+            @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero Integer from,
+            @RequestParam(value = "size", defaultValue = "40") @Positive Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        List<BookingShortDto> bookings = service.getCompactByUserAndState(userId, state, from, size, cursor);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookings);
+        }
+        return withNextCursor(bookings, size, last -> new BookingCursor(last.getEnd(), last.getId()));
+    }
+
+    @GetMapping(path = "/owner", params = "view=compact")
+    public ResponseEntity<List<BookingShortDto>> getCompactByOwnerAndState(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(value = "state", defaultValue = "ALL") String state,
+            @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero Integer from,
+            @RequestParam(value = "size", defaultValue = "40") @Positive Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        List<BookingShortDto> bookings = service.getCompactByOwnerAndState(userId, state, from, size, cursor);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookings);
+        }
+        return withNextCursor(bookings, size, last -> new BookingCursor(last.getEnd(), last.getId()));
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, Integer size) {
+        return withNextCursor(bookings, size, last -> new BookingCursor(last.getEnd(), last.getId()));
+    }
+
+    private <T> ResponseEntity<List<T>> withNextCursor(List<T> bookings, Integer size,
+                                                       Function<T, BookingCursor> cursorOf) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, cursorOf.apply(bookings.get(bookings.size() - 1)).encode());
+        }
+        return response.body(bookings);
     }
 }
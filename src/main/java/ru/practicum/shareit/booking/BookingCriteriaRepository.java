@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+
+import java.util.List;
+
+public interface BookingCriteriaRepository {
+
+    List<Booking> findAll(Specification<Booking> specification, Sort sort, int limit);
+
+    List<BookingShortDto> findCompact(Specification<Booking> specification, Pageable pageable);
+}
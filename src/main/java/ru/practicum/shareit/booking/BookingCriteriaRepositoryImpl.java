@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public class BookingCriteriaRepositoryImpl implements BookingCriteriaRepository {
+
+    private static final String LOAD_GRAPH = "javax.persistence.loadgraph";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findAll(Specification<Booking> specification, Sort sort, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = builder.createQuery(Booking.class);
+        Root<Booking> root = query.from(Booking.class);
+        query.select(root)
+                .where(specification.toPredicate(root, query, builder))
+                .orderBy(toOrders(sort, root, builder));
+        return entityManager.createQuery(query)
+                .setHint(LOAD_GRAPH, entityManager.getEntityGraph(Booking.WITH_ITEM_AND_BOOKER))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<BookingShortDto> findCompact(Specification<Booking> specification, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingShortDto> query = builder.createQuery(BookingShortDto.class);
+        Root<Booking> root = query.from(Booking.class);
+        Join<Booking, Item> item = root.join("item");
+        Join<Booking, User> booker = root.join("booker");
+        query.select(builder.construct(BookingShortDto.class,
+                        root.get("id"),
+                        root.get("start"),
+                        root.get("end"),
+                        root.get("status"),
+                        item.get("id"),
+                        item.get("name"),
+                        booker.get("id"),
+                        booker.get("name")))
+                .where(specification.toPredicate(root, query, builder))
+                .orderBy(toOrders(pageable.getSort(), root, builder));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+}
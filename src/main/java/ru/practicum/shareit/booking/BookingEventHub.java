@@ -0,0 +1,200 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans booking changes out to SSE subscribers of the booker and the item owner.
+ * Idle connections hold no thread: events are queued per subscriber and written by a small shared pool.
+ * A subscriber whose queue overflows is disconnected and is expected to reconnect and resync.
+ * A send blocked on a slow connection for longer than {@link #SEND_TIMEOUT} fails its emitter, so one stalled
+ * client holds a sender thread for a bounded time only.
+ */
+@Slf4j
+@Component
+public class BookingEventHub {
+
+    public static final String EVENT_NAME = "booking";
+    static final Duration SEND_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final int QUEUE_CAPACITY = 64;
+    private static final int SENDER_THREADS = 4;
+    private static final long TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final ScheduledExecutorService watchdog;
+    private final int queueCapacity;
+    private final long sendTimeoutNanos;
+
+    public BookingEventHub() {
+        this(newSenderPool(), Executors.newSingleThreadScheduledExecutor(daemon("booking-events-watchdog-")),
+                QUEUE_CAPACITY, SEND_TIMEOUT);
+    }
+
+    BookingEventHub(Executor executor, ScheduledExecutorService watchdog, int queueCapacity, Duration sendTimeout) {
+        this.executor = executor;
+        this.watchdog = watchdog;
+        this.queueCapacity = queueCapacity;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        if (watchdog != null) {
+            long period = sendTimeout.toMillis() / 2;
+            watchdog.scheduleWithFixedDelay(() -> disconnectStalled(System.nanoTime()), period, period,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(queueCapacity));
+        subscribers.compute(userId, (id, userSubscribers) -> {
+            Set<Subscriber> added = userSubscribers == null ? newSubscriberSet() : userSubscribers;
+            added.add(subscriber);
+            return added;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        log.info("Пользователь {} подписался на события бронирований", userId);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        publish(event.getBooking().getBookerId(), event.getBooking());
+        if (!event.getOwnerId().equals(event.getBooking().getBookerId())) {
+            publish(event.getOwnerId(), event.getBooking());
+        }
+    }
+
+    int getSubscriberCount(Long userId) {
+        return subscribers.getOrDefault(userId, Set.of()).size();
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(TIMEOUT_MILLIS);
+    }
+
+    <T> Set<T> newSubscriberSet() {
+        return ConcurrentHashMap.newKeySet();
+    }
+
+    void disconnectStalled(long now) {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                long sendStarted = subscriber.sendStarted;
+                if (sendStarted != 0 && now - sendStarted > sendTimeoutNanos) {
+                    log.warn("Отправка события подписчику {} зависла и он отключён", subscriber.userId);
+                    unsubscribe(subscriber);
+                    subscriber.emitter.completeWithError(new IOException("Превышено время отправки события"));
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdownNow();
+        }
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+    }
+
+    private void publish(Long userId, BookingEventDto booking) {
+        for (Subscriber subscriber : subscribers.getOrDefault(userId, Set.of())) {
+            if (!subscriber.queue.offer(booking)) {
+                log.warn("Подписчик {} не успевает получать события бронирований и отключён", userId);
+                unsubscribe(subscriber);
+                subscriber.emitter.complete();
+                continue;
+            }
+            if (subscriber.scheduled.compareAndSet(false, true)) {
+                executor.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            BookingEventDto booking;
+            while ((booking = subscriber.queue.poll()) != null) {
+                subscriber.sendStarted = System.nanoTime();
+                subscriber.emitter.send(SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .id(String.valueOf(booking.getId()))
+                        .data(booking));
+                subscriber.sendStarted = 0;
+            }
+        } catch (IOException e) {
+            unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } catch (IllegalStateException e) {
+            unsubscribe(subscriber);
+            return;
+        } finally {
+            subscriber.sendStarted = 0;
+            subscriber.scheduled.set(false);
+        }
+        if (!subscriber.queue.isEmpty() && subscriber.scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private static ExecutorService newSenderPool() {
+        return Executors.newFixedThreadPool(SENDER_THREADS, daemon("booking-events-"));
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class Subscriber {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<BookingEventDto> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long sendStarted;
+
+        private Subscriber(Long userId, SseEmitter emitter, Queue<BookingEventDto> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.UserRemovedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Per-item interval trees of WAITING and APPROVED bookings, loaded on first access to an item.
+ * Finished bookings are not loaded: a new booking cannot start in the past, and ended intervals are pruned
+ * from a tree at most once per {@link #PRUNE_INTERVAL}.
+ * A tree is only retired under its own lock, so a writer either finishes its save before the retirement or sees
+ * the tree as stale after locking it and retries against a fresh load.
+ * A save inside a transaction keeps its intervals in the tree until the transaction ends, so nobody books the same
+ * time before the commit, and takes them out again if the transaction does not commit. A rejection frees its
+ * interval only after the commit for the same reason.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+
+    static final Duration PRUNE_INTERVAL = Duration.ofHours(1);
+
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING,
+            BookingStatus.APPROVED);
+
+    private final BookingRepository repository;
+    private final Map<Long, CompletableFuture<ItemIntervals>> trees = new ConcurrentHashMap<>();
+
+    public BookingIntervalIndex(BookingRepository repository) {
+        this.repository = repository;
+    }
+
+    public boolean hasOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return locked(itemId, tree -> tree.overlaps(start, end));
+    }
+
+    public Optional<Booking> saveIfFree(Booking booking, UnaryOperator<Booking> saver) {
+        return locked(booking.getItem().getId(), tree -> {
+            if (tree.overlaps(booking.getStart(), booking.getEnd())) {
+                return Optional.empty();
+            }
+            Booking savedBooking = saver.apply(booking);
+            tree.insert(savedBooking.getId(), savedBooking.getStart(), savedBooking.getEnd());
+            removeOnRollback(List.of(savedBooking));
+            return Optional.of(savedBooking);
+        });
+    }
+
+    public List<Booking> saveAllIfFree(List<Booking> bookings, UnaryOperator<List<Booking>> saver) {
+        Set<Long> itemIds = new TreeSet<>();
+        for (Booking booking : bookings) {
+            itemIds.add(booking.getItem().getId());
+        }
+        while (true) {
+            Map<Long, ItemIntervals> batchTrees = new TreeMap<>();
+            for (Long itemId : itemIds) {
+                batchTrees.put(itemId, current(itemId));
+            }
+            Optional<List<Booking>> saved = withLocks(new ArrayList<>(batchTrees.values()), 0, () -> {
+                for (ItemIntervals intervals : batchTrees.values()) {
+                    if (intervals.stale) {
+                        return Optional.empty();
+                    }
+                    intervals.pruneIfDue(LocalDateTime.now());
+                }
+                return Optional.of(saveFree(bookings, batchTrees, saver));
+            });
+            if (saved.isPresent()) {
+                return saved.get();
+            }
+        }
+    }
+
+    public void remove(Booking booking) {
+        remove(booking.getItem().getId(), booking.getId(), booking.getStart());
+    }
+
+    public void remove(Long itemId, Long bookingId, LocalDateTime start) {
+        CompletableFuture<ItemIntervals> future = trees.get(itemId);
+        if (future != null) {
+            future.thenAccept(intervals -> {
+                synchronized (intervals) {
+                    intervals.tree.remove(bookingId, start);
+                }
+            });
+        }
+    }
+
+    public void removeAfterCommit(Booking booking) {
+        removeAfterCommit(booking.getItem().getId(), booking.getId(), booking.getStart());
+    }
+
+    public void removeAfterCommit(Long itemId, Long bookingId, LocalDateTime start) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(itemId, bookingId, start);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(itemId, bookingId, start);
+            }
+        });
+    }
+
+    public void invalidate(Long itemId) {
+        CompletableFuture<ItemIntervals> future = trees.get(itemId);
+        if (future != null) {
+            future.thenAccept(intervals -> retire(itemId, future, intervals));
+        }
+    }
+
+    public void invalidateAll() {
+        trees.forEach((itemId, future) -> future.thenAccept(intervals -> retire(itemId, future, intervals)));
+        log.info("Индекс интервалов бронирований сброшен");
+    }
+
+    @EventListener
+    public void onUserRemoved(UserRemovedEvent event) {
+        invalidateAll();
+    }
+
+    private List<Booking> saveFree(List<Booking> bookings, Map<Long, ItemIntervals> batchTrees,
+                                   UnaryOperator<List<Booking>> saver) {
+        Map<Long, BookingIntervalTree> accepted = new HashMap<>();
+        List<Booking> free = new ArrayList<>();
+        for (Booking booking : bookings) {
+            Long itemId = booking.getItem().getId();
+            BookingIntervalTree batchTree = accepted.computeIfAbsent(itemId, id -> new BookingIntervalTree());
+            if (batchTrees.get(itemId).tree.overlaps(booking.getStart(), booking.getEnd())
+                    || batchTree.overlaps(booking.getStart(), booking.getEnd())) {
+                continue;
+            }
+            batchTree.insert((long) free.size(), booking.getStart(), booking.getEnd());
+            free.add(booking);
+        }
+        if (free.isEmpty()) {
+            return free;
+        }
+        List<Booking> savedBookings = saver.apply(free);
+        for (Booking savedBooking : savedBookings) {
+            batchTrees.get(savedBooking.getItem().getId()).tree
+                    .insert(savedBooking.getId(), savedBooking.getStart(), savedBooking.getEnd());
+        }
+        removeOnRollback(savedBookings);
+        return savedBookings;
+    }
+
+    private void removeOnRollback(List<Booking> savedBookings) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    savedBookings.forEach(BookingIntervalIndex.this::remove);
+                    log.info("Транзакция не зафиксирована, из индекса убрано {} интервалов бронирований",
+                            savedBookings.size());
+                }
+            }
+        });
+    }
+
+    private <T> T locked(Long itemId, Function<BookingIntervalTree, T> action) {
+        while (true) {
+            ItemIntervals intervals = current(itemId);
+            synchronized (intervals) {
+                if (!intervals.stale) {
+                    intervals.pruneIfDue(LocalDateTime.now());
+                    return action.apply(intervals.tree);
+                }
+            }
+        }
+    }
+
+    private <T> T withLocks(List<ItemIntervals> locks, int from, Supplier<T> action) {
+        if (from == locks.size()) {
+            return action.get();
+        }
+        synchronized (locks.get(from)) {
+            return withLocks(locks, from + 1, action);
+        }
+    }
+
+    private void retire(Long itemId, CompletableFuture<ItemIntervals> future, ItemIntervals intervals) {
+        synchronized (intervals) {
+            intervals.stale = true;
+            trees.remove(itemId, future);
+        }
+    }
+
+    private ItemIntervals current(Long itemId) {
+        CompletableFuture<ItemIntervals> future = trees.get(itemId);
+        if (future == null) {
+            CompletableFuture<ItemIntervals> loading = new CompletableFuture<>();
+            future = trees.putIfAbsent(itemId, loading);
+            if (future == null) {
+                try {
+                    loading.complete(load(itemId));
+                } catch (RuntimeException e) {
+                    trees.remove(itemId, loading);
+                    loading.completeExceptionally(e);
+                    throw e;
+                }
+                future = loading;
+            }
+        }
+        return future.join();
+    }
+
+    private ItemIntervals load(Long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        BookingIntervalTree tree = new BookingIntervalTree();
+        for (Booking booking : repository.findByItemIdAndStatusInAndEndIsAfter(itemId, ACTIVE_STATUSES, now)) {
+            tree.insert(booking.getId(), booking.getStart(), booking.getEnd());
+        }
+        log.info("Загружено {} интервалов бронирований предмета {}", tree.size(), itemId);
+        return new ItemIntervals(tree, now.plus(PRUNE_INTERVAL));
+    }
+
+    /**
+     * Tree of one item with its stale mark and next pruning time, all guarded by the holder's monitor.
+     */
+    private static final class ItemIntervals {
+
+        private final BookingIntervalTree tree;
+        private LocalDateTime nextPrune;
+        private boolean stale;
+
+        private ItemIntervals(BookingIntervalTree tree, LocalDateTime nextPrune) {
+            this.tree = tree;
+            this.nextPrune = nextPrune;
+        }
+
+        private void pruneIfDue(LocalDateTime now) {
+            if (now.isAfter(nextPrune)) {
+                tree.removeEndedBy(now);
+                nextPrune = now.plus(PRUNE_INTERVAL);
+            }
+        }
+    }
+}
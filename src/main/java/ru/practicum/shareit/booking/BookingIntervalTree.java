@@ -0,0 +1,190 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * AVL tree of half-open booking intervals [start, end) ordered by start and booking id.
+ * Every node keeps the maximum end of its subtree, so an overlap query visits one path only.
+ */
+class BookingIntervalTree {
+
+    private static final Comparator<Node> ORDER = Comparator
+            .comparing((Node node) -> node.start)
+            .thenComparing(node -> node.bookingId);
+
+    private Node root;
+    private int size;
+
+    void insert(Long bookingId, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, new Node(bookingId, start, end));
+    }
+
+    void remove(Long bookingId, LocalDateTime start) {
+        root = remove(root, new Node(bookingId, start, start));
+    }
+
+    int removeEndedBy(LocalDateTime time) {
+        List<Node> ended = new ArrayList<>();
+        collectEnded(root, time, ended);
+        for (Node node : ended) {
+            root = remove(root, node);
+        }
+        return ended.size();
+    }
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && start.isBefore(node.end)) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void collectEnded(Node node, LocalDateTime time, List<Node> ended) {
+        if (node == null) {
+            return;
+        }
+        collectEnded(node.left, time, ended);
+        if (!node.end.isAfter(time)) {
+            ended.add(node);
+        }
+        if (node.start.isBefore(time)) {
+            collectEnded(node.right, time, ended);
+        }
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            size++;
+            return added;
+        }
+        int cmp = ORDER.compare(added, node);
+        if (cmp < 0) {
+            node.left = insert(node.left, added);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, added);
+        } else {
+            return node;
+        }
+        return balance(node);
+    }
+
+    private Node remove(Node node, Node removed) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = ORDER.compare(removed, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, removed);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, removed);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private void update(Node node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.right.maxEnd;
+        }
+    }
+
+    private int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node {
+
+        private final Long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(Long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
@@ -2,65 +2,94 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    String request = "SELECT booking_id, b.start_date, b.end_date, b.item_id, b.booker_id, b.status " +
-            "FROM items i " +
-            "LEFT JOIN bookings b ON i.item_id = b.item_id " +
-            "WHERE i.owner_id = ?1 ";
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingCriteriaRepository,
+        BookingBatchRepository {
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     List<Booking> findByBookerId(Long bookerId, Pageable pageable);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     List<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Long bookerId,
                                                               LocalDateTime before,
                                                               LocalDateTime after,
                                                               Pageable pageable);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     List<Booking> findByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime time, Pageable pageable);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     List<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime time, Pageable pageable);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     List<Booking> findByBookerIdAndStatusIs(Long bookerId, BookingStatus status, Pageable pageable);
 
-    @Query(name = "SELECT *" +
-            "FROM bookings b " +
-            "WHERE b.item_id = ?1 AND b.booker_id = ?2 AND b.end_date < ?3 " +
-            "AND (b.status LIKE 'APPROVED' OR b.status LIKE 'WAITING') " +
-            "LIMIT 1", nativeQuery = true)
-    Booking findByItemIdAndBookerIdAndEndIsBefore(Long itemId, Long userId, LocalDateTime time);
-
-    @Query(name = request + " AND (b.status LIKE 'WAITING' OR b.status LIKE 'APPROVED') ",
-            nativeQuery = true)
-    List<Booking> findByItemOwnerId(Long ownerId, Pageable pageable);
-
-    @Query(name = request + "AND b.start_date < ?2 AND b.end_date > ?3",
-            nativeQuery = true)
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfter(Long ownerId,
+    boolean existsByItemIdAndBookerIdAndStatusInAndEndIsBefore(Long itemId, Long bookerId,
+                                                                Collection<BookingStatus> statuses,
+                                                                LocalDateTime time);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    List<Booking> findByOwnerId(Long ownerId, Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    List<Booking> findByOwnerIdAndStartIsBeforeAndEndIsAfter(Long ownerId,
                                                              LocalDateTime before,
                                                              LocalDateTime after,
                                                              Pageable pageable);
 
-    @Query(name = request + "AND (b.status LIKE 'WAITING' OR b.status LIKE 'APPROVED') " +
-            "AND b.end_date < ?2 ",
-            nativeQuery = true)
-    List<Booking> findByItemOwnerIdAndEndIsBefore(Long ownerId, LocalDateTime time, Pageable pageable);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    List<Booking> findByOwnerIdAndEndIsBefore(Long ownerId, LocalDateTime time, Pageable pageable);
 
-    @Query(name = request + "AND (b.status LIKE 'WAITING' OR b.status LIKE 'APPROVED') " +
-            "AND b.start_date > ?2 ",
-            nativeQuery = true)
-    List<Booking> findByItemOwnerIdAndStartIsAfter(Long ownerId, LocalDateTime time, Pageable pageable);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    List<Booking> findByOwnerIdAndStartIsAfter(Long ownerId, LocalDateTime time, Pageable pageable);
 
-    List<Booking> findByItemOwnerIdAndStatusIs(Long ownerId, BookingStatus status, Pageable pageable);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    List<Booking> findByOwnerIdAndStatusIs(Long ownerId, BookingStatus status, Pageable pageable);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     Booking findFirstByItemIdAndEndIsBefore(Long itemId, LocalDateTime time, Sort sort);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     Booking findFirstByItemIdAndStartIsAfter(Long itemId, LocalDateTime time, Sort sort);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    List<Booking> findByItemIdAndStatusInAndEndIsAfter(Long itemId, List<BookingStatus> statuses, LocalDateTime time);
+
+    boolean existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(Long itemId,
+                                                                   List<BookingStatus> statuses,
+                                                                   LocalDateTime end,
+                                                                   LocalDateTime start);
+
+    @Query(value = "SELECT b.booking_id AS id, b.item_id AS itemId, b.booker_id AS bookerId, b.start_date AS start " +
+            "FROM bookings b " +
+            "WHERE b.booking_id IN (?1) AND b.owner_id = ?2 AND b.status = 'WAITING' " +
+            "FOR UPDATE", nativeQuery = true)
+    List<BookingInterval> lockWaitingByIdInAndOwnerId(Collection<Long> bookingIds, Long ownerId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = ?4 WHERE b.id = ?1 AND b.ownerId = ?2 AND b.status = ?3")
+    int compareAndSetStatus(Long bookingId, Long ownerId, BookingStatus expected, BookingStatus status);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = ?2 WHERE b.id IN ?1")
+    int updateStatusByIdIn(Collection<Long> bookingIds, BookingStatus status);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id IN ?1 AND (" +
+            "b.end < ?2 AND b.end = (SELECT MAX(l.end) FROM Booking l " +
+            "WHERE l.item = b.item AND l.end < ?2) " +
+            "OR b.start > ?2 AND b.start = (SELECT MIN(n.start) FROM Booking n " +
+            "WHERE n.item = b.item AND n.start > ?2))")
+    List<Booking> findLastAndNextByItemIdIn(Collection<Long> itemIds, LocalDateTime time);
 }
@@ -1,6 +1,11 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingApproveResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -9,17 +14,35 @@ public interface BookingService {
 
     BookingDto add(Long userId, BookingDto bookingDto);
 
+    List<BookingBatchResultDto> addAll(Long userId, List<BookingDto> bookingDtos);
+
     BookingDto makeApprove(Long ownerId, Long bookingId, boolean approved);
 
+    BookingApproveResultDto makeApproveAll(Long ownerId, List<Long> bookingIds, boolean approved);
+
     BookingDto getById(Long userId, Long bookingId);
 
+    SseEmitter subscribe(Long userId);
+
     List<BookingDto> getByUserAndState(Long bookerId, String state, Integer from, Integer size);
 
     List<BookingDto> getByOwnerAndState(Long ownerId, String state, Integer from, Integer size);
 
+    List<BookingDto> getByUserAndStateAfter(Long bookerId, String state, String cursor, Integer size);
+
+    List<BookingDto> getByOwnerAndStateAfter(Long ownerId, String state, String cursor, Integer size);
+
+    List<BookingShortDto> getCompactByUserAndState(Long bookerId, String state, Integer from, Integer size,
+                                                   String cursor);
+
+    List<BookingShortDto> getCompactByOwnerAndState(Long ownerId, String state, Integer from, Integer size,
+                                                    String cursor);
+
     BookingDto getLastBooking(Long itemId);
 
     BookingDto getNextBooking(Long itemId);
 
-    Booking getByItemId(Long itemId, Long userId, LocalDateTime time);
+    void setLastAndNextBookings(List<ItemWithBookingDto> items);
+
+    boolean hasFinishedBooking(Long itemId, Long userId, LocalDateTime time);
 }
@@ -1,42 +1,72 @@
 package ru.practicum.shareit.booking;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingApproveResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.utils.LogSummary;
 import ru.practicum.shareit.utils.OffsetPageRequest;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class BookingServiceImpl implements BookingService {
 
+    private static final List<BookingStatus> COMMENT_STATUSES = List.of(BookingStatus.APPROVED,
+            BookingStatus.WAITING);
+
     private final BookingRepository repository;
     private final ItemService itemService;
     private final UserService userService;
     private final BookingMapper bookingMapper;
     private final UserMapper userMapper;
+    private final BookingIntervalIndex intervalIndex;
+    private final BookingEventHub eventHub;
+    private final ApplicationEventPublisher eventPublisher;
 
     public BookingServiceImpl(BookingRepository repository,
                               ItemService itemService,
                               UserService userService,
                               BookingMapper bookingMapper,
-                              UserMapper userMapper) {
+                              UserMapper userMapper,
+                              BookingIntervalIndex intervalIndex,
+                              BookingEventHub eventHub,
+                              ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
         this.itemService = itemService;
         this.userService = userService;
         this.bookingMapper = bookingMapper;
         this.userMapper = userMapper;
+        this.intervalIndex = intervalIndex;
+        this.eventHub = eventHub;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -53,26 +83,117 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Предмет " + booking.getItem() + " не доступен");
         }
         booking.setBooker(userMapper.fromDto(userService.getUserById(userId)));
-        log.info("Добавлено бронирование {}", booking);
-        return bookingMapper.toDto(repository.save(booking));
+        booking.setOwnerId(booking.getItem().getOwner().getId());
+        Booking savedBooking = intervalIndex.saveIfFree(booking, repository::save)
+                .orElseThrow(() -> new ValidationException("Предмет с id " + bookingDto.getItemId() +
+                        " уже забронирован на указанные даты"));
+        log.info("Добавлено бронирование {}", savedBooking);
+        publishChange(savedBooking);
+        return bookingMapper.toDto(savedBooking);
     }
 
     @Override
-    public BookingDto makeApprove(Long ownerId, Long bookingId, boolean approved) {
-        Booking booking = checkBooking(bookingId);
-        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
-            throw new ObjectNotFoundException("Изменить статус бронирования может только владелец предмета");
+    @Transactional
+    public List<BookingBatchResultDto> addAll(Long userId, List<BookingDto> bookingDtos) {
+        User booker = userMapper.fromDto(userService.getUserById(userId));
+        Map<Long, Item> items = new HashMap<>();
+        for (Item item : itemService.getItemsByIds(bookingDtos.stream()
+                .map(BookingDto::getItemId)
+                .collect(Collectors.toSet()))) {
+            items.put(item.getId(), item);
+        }
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        Map<Booking, BookingBatchResultDto> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDto bookingDto = bookingDtos.get(i);
+            BookingBatchResultDto result = new BookingBatchResultDto(i, null, null);
+            results.add(result);
+            Item item = items.get(bookingDto.getItemId());
+            if (bookingDto.getEnd().isBefore(bookingDto.getStart())) {
+                result.setError("Дата конца аренды не может быть раньше даты начала аренды");
+            } else if (item == null) {
+                result.setError("Предмет с id " + bookingDto.getItemId() + " не найден");
+            } else if (item.getOwner().getId().equals(userId)) {
+                result.setError("Владелец не может арендовать собственную вещь");
+            } else if (!item.getAvailable()) {
+                result.setError("Предмет " + item + " не доступен");
+            } else {
+                Booking booking = bookingMapper.fromDto(bookingDto);
+                booking.setId(null);
+                booking.setItem(item);
+                booking.setBooker(booker);
+                booking.setOwnerId(item.getOwner().getId());
+                candidates.put(booking, result);
+            }
         }
-        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+        List<Booking> savedBookings = intervalIndex.saveAllIfFree(new ArrayList<>(candidates.keySet()),
+                repository::insertAll);
+        for (Booking savedBooking : savedBookings) {
+            candidates.get(savedBooking).setBooking(bookingMapper.toDto(savedBooking));
+            publishChange(savedBooking);
+        }
+        for (BookingBatchResultDto result : candidates.values()) {
+            if (result.getBooking() == null) {
+                result.setError("Предмет с id " + bookingDtos.get(result.getIndex()).getItemId() +
+                        " уже забронирован на указанные даты");
+            }
+        }
+        log.info("Добавлено {} бронирований из {} для пользователя {}", savedBookings.size(), bookingDtos.size(),
+                userId);
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public BookingDto makeApprove(Long ownerId, Long bookingId, boolean approved) {
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (repository.compareAndSetStatus(bookingId, ownerId, BookingStatus.WAITING, status) == 0) {
+            Booking booking = checkBooking(bookingId);
+            if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+                throw new ObjectNotFoundException("Изменить статус бронирования может только владелец предмета");
+            }
             throw new ValidationException("Изменить статус бронирования невозможно");
         }
-        if (approved) {
-            booking.setStatus(BookingStatus.APPROVED);
-        } else {
-            booking.setStatus(BookingStatus.REJECTED);
+        Booking booking = checkBooking(bookingId);
+        if (!approved) {
+            intervalIndex.removeAfterCommit(booking);
         }
         log.info("Бронированию {} установлен новый статус {}", booking, booking.getStatus());
-        return bookingMapper.toDto(repository.save(booking));
+        publishChange(booking);
+        return bookingMapper.toDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public BookingApproveResultDto makeApproveAll(Long ownerId, List<Long> bookingIds, boolean approved) {
+        checkUser(ownerId);
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        Set<Long> requestedIds = new LinkedHashSet<>(bookingIds);
+        List<BookingInterval> waiting = repository.lockWaitingByIdInAndOwnerId(requestedIds, ownerId);
+        List<Long> updated = new ArrayList<>();
+        for (BookingInterval booking : waiting) {
+            updated.add(booking.getId());
+        }
+        if (!updated.isEmpty()) {
+            repository.updateStatusByIdIn(updated, status);
+        }
+        for (BookingInterval booking : waiting) {
+            if (!approved) {
+                intervalIndex.removeAfterCommit(booking.getItemId(), booking.getId(), booking.getStart());
+            }
+            eventPublisher.publishEvent(new BookingChangedEvent(ownerId,
+                    new BookingEventDto(booking.getId(), booking.getItemId(), booking.getBookerId(), status)));
+        }
+        requestedIds.removeAll(updated);
+        log.info("Бронированиям {} владельца {} установлен новый статус {}, пропущены {}",
+                LogSummary.ids(updated, id -> id), ownerId, status, LogSummary.ids(requestedIds, id -> id));
+        return new BookingApproveResultDto(updated, new ArrayList<>(requestedIds));
+    }
+
+    @Override
+    public SseEmitter subscribe(Long userId) {
+        checkUser(userId);
+        return eventHub.subscribe(userId);
     }
 
     @Override
@@ -89,69 +210,120 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public List<BookingDto> getByUserAndState(Long bookerId, String state, Integer from, Integer size) {
         checkEnum(state);
+        checkUser(bookerId);
         List<BookingDto> bookings = new ArrayList<>();
-        if (userService.getUserById(bookerId) != null) {
-            switch (BookingState.valueOf(state)) {
-                case ALL:
-                    bookings = bookingMapper.toDto(repository.findByBookerId(bookerId, getPagination(from, size)));
-                    break;
-                case CURRENT:
-                    bookings = bookingMapper.toDto(repository.findByBookerIdAndStartIsBeforeAndEndIsAfter(
-                            bookerId, LocalDateTime.now(), LocalDateTime.now(), getPagination(from, size)));
-                    break;
-                case PAST:
-                    bookings = bookingMapper.toDto(repository.findByBookerIdAndEndIsBefore(
-                            bookerId, LocalDateTime.now(), getPagination(from, size)));
-                    break;
-                case FUTURE:
-                    bookings = bookingMapper.toDto(repository.findByBookerIdAndStartIsAfter(
-                            bookerId, LocalDateTime.now(), getPagination(from, size)));
-                    break;
-                case WAITING:
-                    bookings = bookingMapper.toDto(repository.findByBookerIdAndStatusIs(
-                            bookerId, BookingStatus.WAITING, getPagination(from, size)));
-                    break;
-                case REJECTED:
-                    bookings = bookingMapper.toDto(repository.findByBookerIdAndStatusIs(
-                            bookerId, BookingStatus.REJECTED, getPagination(from, size)));
-            }
+        switch (BookingState.valueOf(state)) {
+            case ALL:
+                bookings = bookingMapper.toDto(repository.findByBookerId(bookerId, getPagination(from, size)));
+                break;
+            case CURRENT:
+                bookings = bookingMapper.toDto(repository.findByBookerIdAndStartIsBeforeAndEndIsAfter(
+                        bookerId, LocalDateTime.now(), LocalDateTime.now(), getPagination(from, size)));
+                break;
+            case PAST:
+                bookings = bookingMapper.toDto(repository.findByBookerIdAndEndIsBefore(
+                        bookerId, LocalDateTime.now(), getPagination(from, size)));
+                break;
+            case FUTURE:
+                bookings = bookingMapper.toDto(repository.findByBookerIdAndStartIsAfter(
+                        bookerId, LocalDateTime.now(), getPagination(from, size)));
+                break;
+            case WAITING:
+                bookings = bookingMapper.toDto(repository.findByBookerIdAndStatusIs(
+                        bookerId, BookingStatus.WAITING, getPagination(from, size)));
+                break;
+            case REJECTED:
+                bookings = bookingMapper.toDto(repository.findByBookerIdAndStatusIs(
+                        bookerId, BookingStatus.REJECTED, getPagination(from, size)));
         }
-        log.info("Получен список бронирований {} для пользователя {}", bookings, userService.getUserById(bookerId));
+        log.info("Получен список бронирований {} для пользователя {}", LogSummary.ids(bookings, BookingDto::getId),
+                bookerId);
         return bookings;
     }
 
     @Override
     public List<BookingDto> getByOwnerAndState(Long ownerId, String state, Integer from, Integer size) {
         checkEnum(state);
+        checkUser(ownerId);
         List<BookingDto> bookings = new ArrayList<>();
-        if (itemService.getItemsByOwner(ownerId, 0, size).size() > 0 &&
-                userService.getUserById(ownerId) != null) {
+        if (itemService.existsByOwnerId(ownerId)) {
             switch (BookingState.valueOf(state)) {
                 case ALL:
-                    bookings = bookingMapper.toDto(repository.findByItemOwnerId(ownerId, getPagination(from, size)));
+                    bookings = bookingMapper.toDto(repository.findByOwnerId(ownerId, getPagination(from, size)));
                     break;
                 case CURRENT:
-                    bookings = bookingMapper.toDto(repository.findByItemOwnerIdAndStartBeforeAndEndAfter(
+                    bookings = bookingMapper.toDto(repository.findByOwnerIdAndStartIsBeforeAndEndIsAfter(
                             ownerId, LocalDateTime.now(), LocalDateTime.now(), getPagination(from, size)));
                     break;
                 case PAST:
-                    bookings = bookingMapper.toDto(repository.findByItemOwnerIdAndEndIsBefore(
+                    bookings = bookingMapper.toDto(repository.findByOwnerIdAndEndIsBefore(
                             ownerId, LocalDateTime.now(), getPagination(from, size)));
                     break;
                 case FUTURE:
-                    bookings = bookingMapper.toDto(repository.findByItemOwnerIdAndStartIsAfter(
+                    bookings = bookingMapper.toDto(repository.findByOwnerIdAndStartIsAfter(
                             ownerId, LocalDateTime.now(), getPagination(from, size)));
                     break;
                 case WAITING:
-                    bookings = bookingMapper.toDto(repository.findByItemOwnerIdAndStatusIs(
+                    bookings = bookingMapper.toDto(repository.findByOwnerIdAndStatusIs(
                             ownerId, BookingStatus.WAITING, getPagination(from, size)));
                     break;
                 case REJECTED:
-                    bookings = bookingMapper.toDto(repository.findByItemOwnerIdAndStatusIs(
+                    bookings = bookingMapper.toDto(repository.findByOwnerIdAndStatusIs(
                             ownerId, BookingStatus.REJECTED, getPagination(from, size)));
             }
         }
-        log.info("Получен список бронирований {} для владельца {}", bookings, userService.getUserById(ownerId));
+        log.info("Получен список бронирований {} для владельца {}", LogSummary.ids(bookings, BookingDto::getId),
+                ownerId);
+        return bookings;
+    }
+
+    @Override
+    public List<BookingDto> getByUserAndStateAfter(Long bookerId, String state, String cursor, Integer size) {
+        checkEnum(state);
+        BookingCursor bookingCursor = BookingCursor.decode(cursor);
+        checkUser(bookerId);
+        List<BookingDto> bookings = bookingMapper.toDto(repository.findAll(
+                BookingSpecifications.bookedBy(bookerId)
+                        .and(BookingSpecifications.inState(BookingState.valueOf(state), LocalDateTime.now()))
+                        .and(BookingSpecifications.before(bookingCursor)),
+                BookingSpecifications.seekOrder(), size));
+        log.info("Получен список бронирований {} для пользователя {} после курсора {}",
+                LogSummary.ids(bookings, BookingDto::getId), bookerId, cursor);
+        return bookings;
+    }
+
+    @Override
+    public List<BookingDto> getByOwnerAndStateAfter(Long ownerId, String state, String cursor, Integer size) {
+        checkEnum(state);
+        BookingCursor bookingCursor = BookingCursor.decode(cursor);
+        checkUser(ownerId);
+        List<BookingDto> bookings = bookingMapper.toDto(repository.findAll(
+                BookingSpecifications.ownedBy(ownerId)
+                        .and(BookingSpecifications.inState(BookingState.valueOf(state), LocalDateTime.now()))
+                        .and(BookingSpecifications.before(bookingCursor)),
+                BookingSpecifications.seekOrder(), size));
+        log.info("Получен список бронирований {} для владельца {} после курсора {}",
+                LogSummary.ids(bookings, BookingDto::getId), ownerId, cursor);
+        return bookings;
+    }
+
+    @Override
+    public List<BookingShortDto> getCompactByUserAndState(Long bookerId, String state, Integer from, Integer size,
+                                                          String cursor) {
+        List<BookingShortDto> bookings = getCompact(bookerId, BookingSpecifications.bookedBy(bookerId), state,
+                from, size, cursor);
+        log.info("Получен сокращённый список бронирований {} для пользователя {}",
+                LogSummary.ids(bookings, BookingShortDto::getId), bookerId);
+        return bookings;
+    }
+
+    @Override
+    public List<BookingShortDto> getCompactByOwnerAndState(Long ownerId, String state, Integer from, Integer size,
+                                                           String cursor) {
+        List<BookingShortDto> bookings = getCompact(ownerId, BookingSpecifications.ownedBy(ownerId), state,
+                from, size, cursor);
+        log.info("Получен сокращённый список бронирований {} для владельца {}",
+                LogSummary.ids(bookings, BookingShortDto::getId), ownerId);
         return bookings;
     }
 
@@ -169,8 +341,35 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public Booking getByItemId(Long itemId, Long userId, LocalDateTime time) {
-        return repository.findByItemIdAndBookerIdAndEndIsBefore(itemId, userId, time);
+    public void setLastAndNextBookings(List<ItemWithBookingDto> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Map<Long, ItemWithBookingDto> itemsById = new HashMap<>();
+        for (ItemWithBookingDto item : items) {
+            itemsById.put(item.getId(), item);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        // Bookings tying on the boundary all come back: the last is the latest added, the next the earliest.
+        for (Booking booking : repository.findLastAndNextByItemIdIn(new ArrayList<>(itemsById.keySet()), now)) {
+            if (booking.getEnd().isBefore(now)) {
+                lastBookings.merge(booking.getItem().getId(), booking,
+                        (current, other) -> current.getId() > other.getId() ? current : other);
+            } else {
+                nextBookings.merge(booking.getItem().getId(), booking,
+                        (current, other) -> current.getId() < other.getId() ? current : other);
+            }
+        }
+        lastBookings.forEach((itemId, booking) -> itemsById.get(itemId).setLastBooking(bookingMapper.toDto(booking)));
+        nextBookings.forEach((itemId, booking) -> itemsById.get(itemId).setNextBooking(bookingMapper.toDto(booking)));
+    }
+
+    @Override
+    public boolean hasFinishedBooking(Long itemId, Long userId, LocalDateTime time) {
+        return repository.existsByItemIdAndBookerIdAndStatusInAndEndIsBefore(itemId, userId, COMMENT_STATUSES,
+                time);
     }
 
     private void checkEnum(String string) {
@@ -182,6 +381,31 @@ public class BookingServiceImpl implements BookingService {
         throw new ValidationException("Unknown state: " + string);
     }
 
+    private List<BookingShortDto> getCompact(Long userId, Specification<Booking> specification, String state,
+                                             Integer from, Integer size, String cursor) {
+        checkEnum(state);
+        BookingCursor bookingCursor = BookingCursor.decode(cursor);
+        checkUser(userId);
+        Pageable pageable = bookingCursor == null
+                ? getPagination(from, size)
+                : new OffsetPageRequest(0, size, BookingSpecifications.seekOrder());
+        return repository.findCompact(specification
+                        .and(BookingSpecifications.inState(BookingState.valueOf(state), LocalDateTime.now()))
+                        .and(BookingSpecifications.before(bookingCursor)),
+                pageable);
+    }
+
+    private void publishChange(Booking booking) {
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getOwnerId(), new BookingEventDto(
+                booking.getId(), booking.getItem().getId(), booking.getBooker().getId(), booking.getStatus())));
+    }
+
+    private void checkUser(Long userId) {
+        if (!userService.existsById(userId)) {
+            throw new ObjectNotFoundException("Пользователь с id " + userId + " не найден");
+        }
+    }
+
     private Booking checkBooking(Long bookingId) {
         Optional<Booking> booking = repository.findById(bookingId);
         if (booking.isEmpty()) {
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+public final class BookingSpecifications {
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> bookedBy(Long bookerId) {
+        return (root, query, builder) -> builder.equal(root.get("bookerId"), bookerId);
+    }
+
+    public static Specification<Booking> ownedBy(Long ownerId) {
+        return (root, query, builder) -> builder.equal(root.get("ownerId"), ownerId);
+    }
+
+    public static Specification<Booking> inState(BookingState state, LocalDateTime now) {
+        switch (state) {
+            case CURRENT:
+                return (root, query, builder) -> builder.and(
+                        builder.lessThan(root.get("start"), now),
+                        builder.greaterThan(root.get("end"), now));
+            case PAST:
+                return (root, query, builder) -> builder.lessThan(root.get("end"), now);
+            case FUTURE:
+                return (root, query, builder) -> builder.greaterThan(root.get("start"), now);
+            case WAITING:
+                return (root, query, builder) -> builder.equal(root.get("status"), BookingStatus.WAITING);
+            case REJECTED:
+                return (root, query, builder) -> builder.equal(root.get("status"), BookingStatus.REJECTED);
+            default:
+                return (root, query, builder) -> builder.conjunction();
+        }
+    }
+
+    public static Specification<Booking> before(BookingCursor cursor) {
+        if (cursor == null) {
+            return (root, query, builder) -> builder.conjunction();
+        }
+        return (root, query, builder) -> builder.and(
+                builder.lessThanOrEqualTo(root.get("end"), cursor.getEnd()),
+                builder.or(
+                        builder.lessThan(root.get("end"), cursor.getEnd()),
+                        builder.lessThan(root.get("id"), cursor.getId())));
+    }
+
+    public static Sort seekOrder() {
+        return Sort.by(Sort.Direction.DESC, "end").and(Sort.by(Sort.Direction.DESC, "id"));
+    }
+}
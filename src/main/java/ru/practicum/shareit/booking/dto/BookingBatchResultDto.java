@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BookingBatchResultDto {
+
+    private Integer index;
+
+    private BookingDto booking;
+
+    private String error;
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+import ru.practicum.shareit.booking.BookingStatus;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BookingEventDto {
+
+    private Long id;
+
+    private Long itemId;
+
+    private Long bookerId;
+
+    private BookingStatus status;
+}
@@ -22,11 +22,13 @@ public class Comment {
 
     private String text;
 
-    @ManyToOne(cascade = CascadeType.MERGE)
+    @ToString.Exclude
+    @ManyToOne(cascade = CascadeType.MERGE, optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
     private Item item;
 
-    @ManyToOne(cascade = CascadeType.MERGE)
+    @ToString.Exclude
+    @ManyToOne(cascade = CascadeType.MERGE, optional = false)
     @JoinColumn(name = "author_id")
     private User author;
 
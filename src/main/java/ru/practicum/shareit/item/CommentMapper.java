@@ -21,4 +21,11 @@ public class CommentMapper {
                 comment.getAuthor().getName(),
                 comment.getCreated());
     }
+
+    public CommentDto toDto(CommentView comment) {
+        return new CommentDto(comment.getId(),
+                comment.getText(),
+                comment.getAuthorName(),
+                comment.getCreated());
+    }
 }
@@ -1,12 +1,38 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findAllByItemId(Long itemId);
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author " +
+            "WHERE c.item.id = ?1 " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findByItemId(Long itemId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author " +
+            "WHERE c.item.id = ?1 AND (c.created < ?2 OR (c.created = ?2 AND c.id < ?3)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findByItemIdBefore(Long itemId, LocalDateTime created, Long id, Pageable pageable);
+
+    long countByItemId(Long itemId);
+
+    @Query(value = "SELECT id, text, authorName, created, itemId, total " +
+            "FROM (SELECT c.comment_id AS id, c.text AS text, u.name AS authorName, c.create_date AS created, " +
+            "c.item_id AS itemId, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.create_date DESC, c.comment_id DESC) AS rn, " +
+            "COUNT(*) OVER (PARTITION BY c.item_id) AS total " +
+            "FROM comments c " +
+            "JOIN users u ON u.user_id = c.author_id " +
+            "WHERE c.item_id IN (?1)) AS latest_comments " +
+            "WHERE rn <= ?2 " +
+            "ORDER BY itemId, rn", nativeQuery = true)
+    List<CommentView> findLatestByItemIdIn(Collection<Long> itemIds, int limit);
 }
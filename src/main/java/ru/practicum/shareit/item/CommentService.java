@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 
 import java.util.List;
 
@@ -8,5 +9,9 @@ public interface CommentService {
 
     CommentDto add(Long itemId, Long userId, CommentDto commentDto);
 
-    List<CommentDto> getAllByItemId(Long itemId);
+    List<CommentDto> getByItemId(Long itemId, Integer size, String cursor);
+
+    long countByItemId(Long itemId);
+
+    void setLatestComments(List<ItemWithBookingDto> items);
 }
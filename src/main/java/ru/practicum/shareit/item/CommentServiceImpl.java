@@ -1,22 +1,29 @@
 package ru.practicum.shareit.item;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
 public class CommentServiceImpl implements CommentService {
 
+    static final int LATEST_COMMENTS_LIMIT = 10;
+
     private final CommentRepository repository;
     private final UserService userService;
     private final ItemService itemService;
@@ -40,29 +47,57 @@ public class CommentServiceImpl implements CommentService {
 
     @Override
     public CommentDto add(Long itemId, Long userId, CommentDto commentDto) {
-        if (userService.getUserById(userId) == null) {
-            throw new ObjectNotFoundException("Пользователь с id " + userId + " не найден");
-        }
-        if (itemService.getItemById(itemId) == null) {
-            throw new ObjectNotFoundException("Предмет с id " + itemId + " не найден");
-        }
-        if (bookingService.getByItemId(itemId, userId, LocalDateTime.now()) == null) {
+        User author = userMapper.fromDto(userService.getUserById(userId));
+        Item item = itemService.getItemById(itemId);
+        if (!bookingService.hasFinishedBooking(itemId, userId, LocalDateTime.now())) {
             throw new ValidationException("Бронирование предмета с id " + itemId + " не найдено");
         }
         Comment comment = commentMapper.fromDto(commentDto);
-        comment.setAuthor(userMapper.fromDto(userService.getUserById(userId)));
-        comment.setItem(itemService.getItemById(itemId));
+        comment.setAuthor(author);
+        comment.setItem(item);
         comment.setCreated(LocalDateTime.now());
         log.info("Добавлен комментарий {}", comment);
         return commentMapper.toDto(repository.save(comment));
     }
 
     @Override
-    public List<CommentDto> getAllByItemId(Long itemId) {
+    public List<CommentDto> getByItemId(Long itemId, Integer size, String cursor) {
+        CommentCursor commentCursor = CommentCursor.decode(cursor);
+        if (!itemService.existsById(itemId)) {
+            throw new ObjectNotFoundException("Предмет с id " + itemId + " не найден");
+        }
+        PageRequest page = PageRequest.of(0, size);
+        List<Comment> comments = commentCursor == null
+                ? repository.findByItemId(itemId, page)
+                : repository.findByItemIdBefore(itemId, commentCursor.getCreated(), commentCursor.getId(), page);
         List<CommentDto> commentDtos = new ArrayList<>();
-        for (Comment comment : repository.findAllByItemId(itemId)) {
+        for (Comment comment : comments) {
             commentDtos.add(commentMapper.toDto(comment));
         }
+        log.info("Получено {} комментариев предмета {}", commentDtos.size(), itemId);
         return commentDtos;
     }
+
+    @Override
+    public long countByItemId(Long itemId) {
+        return repository.countByItemId(itemId);
+    }
+
+    @Override
+    public void setLatestComments(List<ItemWithBookingDto> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Map<Long, ItemWithBookingDto> itemsById = new HashMap<>();
+        for (ItemWithBookingDto item : items) {
+            item.setComments(new ArrayList<>());
+            item.setCommentCount(0L);
+            itemsById.put(item.getId(), item);
+        }
+        for (CommentView comment : repository.findLatestByItemIdIn(itemsById.keySet(), LATEST_COMMENTS_LIMIT)) {
+            ItemWithBookingDto item = itemsById.get(comment.getItemId());
+            item.getComments().add(commentMapper.toDto(comment));
+            item.setCommentCount(comment.getTotal());
+        }
+    }
 }
\ No newline at end of file
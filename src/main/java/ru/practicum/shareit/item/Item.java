@@ -13,8 +13,12 @@ import javax.persistence.*;
 @ToString
 @Entity
 @Table(name = "items")
+@NamedEntityGraph(name = Item.WITH_OWNER_AND_REQUEST,
+        attributeNodes = {@NamedAttributeNode("owner"), @NamedAttributeNode("request")})
 public class Item {
 
+    public static final String WITH_OWNER_AND_REQUEST = "Item.withOwnerAndRequest";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "item_id")
@@ -25,10 +29,12 @@ public class Item {
     @Column(name = "is_available")
     private Boolean available;
 
-    @ManyToOne(cascade = CascadeType.MERGE)
+    @ToString.Exclude
+    @ManyToOne(cascade = CascadeType.MERGE, optional = false)
     @JoinColumn(name = "owner_id")
     private User owner;
 
+    @ToString.Exclude
     @ManyToOne(cascade = CascadeType.MERGE)
     @JoinColumn(name = "request_id")
     private ItemRequest request;
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -7,6 +8,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
@@ -16,6 +18,11 @@ import java.util.List;
 @Validated
 public class ItemController {
 
+    public static final int MAX_SUGGESTIONS = 50;
+    public static final int MAX_COMMENTS = 100;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final ItemService itemService;
 
     public ItemController(ItemService itemService) {
@@ -59,10 +66,51 @@ public class ItemController {
         return itemService.getItemsBySearch(text, from, size);
     }
 
+    @GetMapping(value = "/search", params = {"sort=relevance", "fuzzy!=true"})
+    public List<ItemDto> getItemsByRelevance(@RequestParam(required = false) String text,
+                                             @RequestParam(value = "from", defaultValue = "0")
+                                             @PositiveOrZero Integer from,
+                                             @RequestParam(value = "size", defaultValue = "40")
+                                             @Positive Integer size) {
+        return itemService.getItemsByRelevance(text, from, size);
+    }
+
+    @GetMapping(value = "/search", params = "fuzzy=true")
+    public List<ItemDto> getItemsByFuzzySearch(@RequestParam(required = false) String text,
+                                               @RequestParam(value = "from", defaultValue = "0")
+                                               @PositiveOrZero Integer from,
+                                               @RequestParam(value = "size", defaultValue = "40")
+                                               @Positive Integer size) {
+        return itemService.getItemsByFuzzySearch(text, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> getSuggestions(@RequestParam String prefix,
+                                       @RequestParam(value = "size", defaultValue = "10")
+                                       @Positive @Max(MAX_SUGGESTIONS) Integer size) {
+        return itemService.getSuggestions(prefix, size);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@PathVariable Long itemId,
                                  @RequestHeader("X-Sharer-User-Id") Long userId,
                                  @Valid @RequestBody CommentDto commentDto) {
         return itemService.addComment(itemId, userId, commentDto);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable Long itemId,
+                                                        @RequestParam(value = "size", defaultValue = "20")
+                                                        @Positive @Max(MAX_COMMENTS) Integer size,
+                                                        @RequestParam(value = "cursor", required = false)
+                                                        String cursor) {
+        List<CommentDto> comments = itemService.getComments(itemId, size, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(itemService.countComments(itemId)));
+        if (comments.size() == size) {
+            CommentDto last = comments.get(comments.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, new CommentCursor(last.getCreated(), last.getId()).encode());
+        }
+        return response.body(comments);
+    }
 }
@@ -1,23 +1,38 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    @Query(value = "SELECT * FROM items WHERE owner_id = ?1", nativeQuery = true)
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
     List<Item> findByOwnerId(Long ownerId, Pageable pageable);
 
-    @Query(value = "SELECT * " +
-            "FROM items " +
-            "WHERE (POSITION(?1 IN LOWER(name)) > 0 OR POSITION(?1 IN LOWER(description)) > 0)" +
-            "AND is_available", nativeQuery = true)
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
+    @Query("SELECT i FROM Item i " +
+            "WHERE (LOCATE(?1, LOWER(i.name)) > 0 OR LOCATE(?1, LOWER(i.description)) > 0) " +
+            "AND i.available = TRUE")
     List<Item> findByText(String text, Pageable pageable);
 
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
+    List<Item> findByAvailableTrue();
+
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
     List<Item> getAllByRequestId(Long requestId);
+
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    @Override
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
+    List<Item> findAllById(Iterable<Long> ids);
+
+    boolean existsByOwnerId(Long ownerId);
 }
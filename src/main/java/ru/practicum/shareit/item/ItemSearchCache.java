@@ -0,0 +1,167 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserRemovedEvent;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of search pages keyed by normalized text, ordering, from and size.
+ * A changed item can only alter pages whose text is a substring of its old or new name or description,
+ * so only those pages are evicted.
+ * Hits, misses and size are published as the standard cache.gets and cache.size meters tagged cache=itemSearch.
+ */
+@Slf4j
+@Component
+public class ItemSearchCache implements MeterBinder {
+
+    static final String CACHE_NAME = "itemSearch";
+
+    private static final int MAX_ENTRIES = 1024;
+
+    private final int maxEntries;
+    private final Map<Key, List<ItemDto>> entries;
+    private long version;
+    private long hits;
+    private long misses;
+
+    public ItemSearchCache() {
+        this(MAX_ENTRIES);
+    }
+
+    ItemSearchCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<ItemDto>> eldest) {
+                return size() > ItemSearchCache.this.maxEntries;
+            }
+        };
+    }
+
+    public List<ItemDto> get(String text, int from, int size, Supplier<List<ItemDto>> loader) {
+        return get(text, false, from, size, loader);
+    }
+
+    public List<ItemDto> get(String text, boolean ranked, int from, int size, Supplier<List<ItemDto>> loader) {
+        Key key = new Key(text, ranked, from, size);
+        long loadVersion;
+        synchronized (this) {
+            List<ItemDto> items = entries.get(key);
+            if (items != null) {
+                hits++;
+                return items;
+            }
+            misses++;
+            loadVersion = version;
+        }
+        List<ItemDto> items = List.copyOf(loader.get());
+        synchronized (this) {
+            if (loadVersion == version) {
+                entries.put(key, items);
+            }
+        }
+        return items;
+    }
+
+    public synchronized void evictMatching(String... fields) {
+        version++;
+        int before = entries.size();
+        entries.keySet().removeIf(key -> matches(key.text, fields));
+        log.debug("Из кэша поиска удалено {} страниц", before - entries.size());
+    }
+
+    public synchronized void clear() {
+        version++;
+        entries.clear();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", this, ItemSearchCache::getHitCount)
+                .tag("cache", CACHE_NAME)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, ItemSearchCache::getMissCount)
+                .tag("cache", CACHE_NAME)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("cache.size", this, ItemSearchCache::getSize)
+                .tag("cache", CACHE_NAME)
+                .register(registry);
+    }
+
+    @EventListener
+    public void onUserRemoved(UserRemovedEvent event) {
+        clear();
+    }
+
+    private static boolean matches(String text, String... fields) {
+        for (String field : fields) {
+            if (field != null && field.toLowerCase().contains(text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Key {
+
+        private final String text;
+        private final boolean ranked;
+        private final int from;
+        private final int size;
+
+        private Key(String text, boolean ranked, int from, int size) {
+            this.text = text;
+            this.ranked = ranked;
+            this.from = from;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return ranked == key.ranked && from == key.from && size == key.size && text.equals(key.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(text, ranked, from, size);
+        }
+    }
+}
@@ -0,0 +1,483 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserRemovedEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Trigram index over names and descriptions of available items, loaded on first search.
+ * Answers the same case-insensitive substring search as {@link ItemRepository#findByText} in item id order.
+ * A BK-tree over the token vocabulary serves typo-tolerant search.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int NAME_WEIGHT = 3;
+    private static final int EXACT_TOKEN_BONUS = 2;
+    private static final int MAX_FUZZY_TOKENS = 5;
+    private static final Comparator<Hit> RANK = Comparator.comparingInt((Hit hit) -> hit.score).reversed()
+            .thenComparingLong(hit -> hit.id);
+
+    private final ItemRepository repository;
+    private final ItemMapper itemMapper;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Long, Document> documents = new TreeMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Postings> tokenPostings = new HashMap<>();
+    private final BkTree vocabulary = new BkTree();
+    private boolean loaded;
+
+    public ItemSearchIndex(ItemRepository repository, ItemMapper itemMapper) {
+        this.repository = repository;
+        this.itemMapper = itemMapper;
+    }
+
+    public List<ItemDto> search(String text, int from, int size) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return candidates(text)
+                    .map(documents::get)
+                    .filter(document -> document.contains(text))
+                    .skip(from)
+                    .limit(size)
+                    .map(document -> document.item)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Orders hits by score, ties by item id. Only the best {@code from + size} hits are kept in a bounded heap
+     * while candidates are streamed, so memory does not grow with the number of matches.
+     */
+    public List<ItemDto> searchByRelevance(String text, int from, int size) {
+        ensureLoaded();
+        int limit = (int) Math.min((long) from + size, Integer.MAX_VALUE);
+        PriorityQueue<Hit> heap = new PriorityQueue<>(RANK.reversed());
+        lock.readLock().lock();
+        try {
+            candidates(text).forEach(id -> {
+                int score = documents.get(id).score(text);
+                if (score == 0) {
+                    return;
+                }
+                Hit hit = new Hit(id, score);
+                if (heap.size() < limit) {
+                    heap.add(hit);
+                } else if (RANK.compare(hit, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(hit);
+                }
+            });
+            return heap.stream()
+                    .sorted(RANK)
+                    .skip(from)
+                    .map(hit -> documents.get(hit.id).item)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds items having, for every query token, a token within {@link #maxDistance} edits.
+     * Only query tokens up to {@link #MAX_FUZZY_TOKENS} are used, which bounds the tree walks per query.
+     */
+    public List<ItemDto> searchFuzzy(String text, int from, int size) {
+        ensureLoaded();
+        long started = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            long[] ids = null;
+            for (String token : tokens(text).stream().limit(MAX_FUZZY_TOKENS).collect(Collectors.toList())) {
+                long[] matches = fuzzyMatches(token);
+                ids = ids == null ? matches : intersect(ids, matches);
+                if (ids.length == 0) {
+                    break;
+                }
+            }
+            if (ids == null) {
+                return new ArrayList<>();
+            }
+            return Arrays.stream(ids)
+                    .skip(from)
+                    .limit(size)
+                    .mapToObj(id -> documents.get(id).item)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+            log.debug("Нечеткий поиск по {} выполнен за {} мкс", text, (System.nanoTime() - started) / 1000);
+        }
+    }
+
+    public void put(Item item) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            removeDocument(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                addDocument(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            tokenPostings.clear();
+            vocabulary.clear();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс предметов сброшен");
+    }
+
+    @EventListener
+    public void onUserRemoved(UserRemovedEvent event) {
+        invalidate();
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    static Set<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static int maxDistance(int length) {
+        if (length <= 2) {
+            return 0;
+        }
+        return length <= 5 ? 1 : 2;
+    }
+
+    static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private long[] fuzzyMatches(String token) {
+        return vocabulary.find(token, maxDistance(token.length())).stream()
+                .map(tokenPostings::get)
+                .filter(Objects::nonNull)
+                .flatMapToLong(list -> Arrays.stream(list.ids, 0, list.size))
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    private static long[] intersect(long[] ids, long[] others) {
+        return LongStream.of(ids)
+                .filter(id -> Arrays.binarySearch(others, id) >= 0)
+                .toArray();
+    }
+
+    private Stream<Long> candidates(String text) {
+        if (text.length() < GRAM) {
+            return documents.keySet().stream();
+        }
+        List<Postings> lists = new ArrayList<>();
+        for (String gram : grams(text)) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return Stream.empty();
+            }
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        Postings driver = lists.get(0);
+        List<Postings> others = lists.subList(1, lists.size());
+        return Arrays.stream(driver.ids, 0, driver.size)
+                .boxed()
+                .filter(id -> others.stream().allMatch(list -> list.contains(id)));
+    }
+
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                for (Item item : repository.findByAvailableTrue()) {
+                    addDocument(item);
+                }
+                loaded = true;
+                log.info("Поисковый индекс предметов загружен: {} предметов, {} триграмм",
+                        documents.size(), postings.size());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addDocument(Item item) {
+        Document document = new Document(itemMapper.toDto(item));
+        documents.put(item.getId(), document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(item.getId());
+        }
+        for (String token : document.tokens()) {
+            tokenPostings.computeIfAbsent(token, key -> {
+                vocabulary.add(key);
+                return new Postings();
+            }).add(item.getId());
+        }
+    }
+
+    private void removeDocument(Long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams()) {
+            Postings list = postings.get(gram);
+            list.remove(itemId);
+            if (list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+        for (String token : document.tokens()) {
+            Postings list = tokenPostings.get(token);
+            list.remove(itemId);
+            if (list.size == 0) {
+                tokenPostings.remove(token);
+            }
+        }
+    }
+
+    private static class Document {
+
+        private final ItemDto item;
+        private final String name;
+        private final String description;
+
+        private Document(ItemDto item) {
+            this.item = item;
+            this.name = normalize(item.getName());
+            this.description = normalize(item.getDescription());
+        }
+
+        private boolean contains(String text) {
+            return name.contains(text) || description.contains(text);
+        }
+
+        private int score(String text) {
+            return NAME_WEIGHT * score(name, text) + score(description, text);
+        }
+
+        private static int score(String field, String text) {
+            int score = 0;
+            for (int i = field.indexOf(text); i >= 0; i = field.indexOf(text, i + 1)) {
+                boolean exactToken = (i == 0 || !Character.isLetterOrDigit(field.charAt(i - 1)))
+                        && (i + text.length() == field.length()
+                        || !Character.isLetterOrDigit(field.charAt(i + text.length())));
+                score += exactToken ? 1 + EXACT_TOKEN_BONUS : 1;
+            }
+            return score;
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(name);
+            grams.addAll(ItemSearchIndex.grams(description));
+            return grams;
+        }
+
+        private Set<String> tokens() {
+            Set<String> tokens = ItemSearchIndex.tokens(name);
+            tokens.addAll(ItemSearchIndex.tokens(description));
+            return tokens;
+        }
+
+        private static String normalize(String text) {
+            return text == null ? "" : text.toLowerCase();
+        }
+    }
+
+    /**
+     * Burkhard-Keller tree of vocabulary tokens. Tokens are never removed: a token without postings is skipped
+     * by the caller and reused if it appears again.
+     */
+    private static class BkTree {
+
+        private BkNode root;
+
+        private void add(String term) {
+            if (root == null) {
+                root = new BkNode(term);
+                return;
+            }
+            BkNode node = root;
+            while (true) {
+                int distance = distance(term, node.term);
+                if (distance == 0) {
+                    return;
+                }
+                BkNode child = node.children.get(distance);
+                if (child == null) {
+                    node.children.put(distance, new BkNode(term));
+                    return;
+                }
+                node = child;
+            }
+        }
+
+        private List<String> find(String term, int maxDistance) {
+            List<String> terms = new ArrayList<>();
+            if (root == null) {
+                return terms;
+            }
+            Deque<BkNode> stack = new ArrayDeque<>();
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                BkNode node = stack.pop();
+                int distance = distance(term, node.term);
+                if (distance <= maxDistance) {
+                    terms.add(node.term);
+                }
+                for (Map.Entry<Integer, BkNode> child : node.children.entrySet()) {
+                    if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                        stack.push(child.getValue());
+                    }
+                }
+            }
+            return terms;
+        }
+
+        private void clear() {
+            root = null;
+        }
+    }
+
+    private static class BkNode {
+
+        private final String term;
+        private final Map<Integer, BkNode> children = new HashMap<>();
+
+        private BkNode(String term) {
+            this.term = term;
+        }
+    }
+
+    private static class Hit {
+
+        private final long id;
+        private final int score;
+
+        private Hit(long id, int score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Sorted item ids sharing one trigram. Ids of new items are appended, so inserts are amortized O(1).
+     */
+    private static class Postings {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long id) {
+            int position = size == 0 || ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertion = -(position + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertion, ids, insertion + 1, size - insertion);
+            ids[insertion] = id;
+            size++;
+        }
+
+        private void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+        }
+
+        private boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
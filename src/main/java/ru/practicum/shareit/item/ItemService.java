@@ -4,6 +4,7 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemService {
@@ -18,9 +19,27 @@ public interface ItemService {
 
     List<ItemDto> getItemsBySearch(String text, Integer from, Integer size);
 
+    List<ItemDto> getItemsByRelevance(String text, Integer from, Integer size);
+
+    List<ItemDto> getItemsByFuzzySearch(String text, Integer from, Integer size);
+
+    List<String> getSuggestions(String prefix, Integer size);
+
     Item getItemById(Long itemId);
 
+    List<Item> getItemsByIds(Collection<Long> itemIds);
+
+    boolean existsById(Long itemId);
+
+    boolean existsByOwnerId(Long ownerId);
+
     CommentDto addComment(Long itemId, Long userId, CommentDto commentDto);
 
+    List<CommentDto> getComments(Long itemId, Integer size, String cursor);
+
+    long countComments(Long itemId);
+
     List<ItemDto> getAllByRequestId(Long requestId);
+
+    List<ItemDto> getAllByRequestIdIn(Collection<Long> requestIds);
 }
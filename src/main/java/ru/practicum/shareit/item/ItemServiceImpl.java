@@ -10,11 +10,15 @@ import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.utils.LogSummary;
 import ru.practicum.shareit.utils.OffsetPageRequest;
+import ru.practicum.shareit.utils.RequestEntityCache;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +33,10 @@ public class ItemServiceImpl implements ItemService {
     private final UserMapper userMapper;
     private final ItemMapper itemMapper;
     private final OwnerItemMapper ownerItemMapper;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSearchCache searchCache;
+    private final ItemSuggestIndex suggestIndex;
+    private final RequestEntityCache requestCache;
 
     public ItemServiceImpl(ItemRepository repository,
                            UserService userService,
@@ -36,7 +44,11 @@ public class ItemServiceImpl implements ItemService {
                            @Lazy CommentService commentService,
                            UserMapper userMapper,
                            ItemMapper itemMapper,
-                           OwnerItemMapper ownerItemMapper) {
+                           OwnerItemMapper ownerItemMapper,
+                           ItemSearchIndex searchIndex,
+                           ItemSearchCache searchCache,
+                           ItemSuggestIndex suggestIndex,
+                           RequestEntityCache requestCache) {
         this.repository = repository;
         this.userService = userService;
         this.bookingService = bookingService;
@@ -44,6 +56,10 @@ public class ItemServiceImpl implements ItemService {
         this.userMapper = userMapper;
         this.itemMapper = itemMapper;
         this.ownerItemMapper = ownerItemMapper;
+        this.searchIndex = searchIndex;
+        this.searchCache = searchCache;
+        this.suggestIndex = suggestIndex;
+        this.requestCache = requestCache;
     }
 
     @Override
@@ -54,8 +70,12 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemMapper.fromDto(itemDto);
         item.getOwner().setId(userId);
         item.setOwner(userMapper.fromDto(userService.getUserById(item.getOwner().getId())));
-        log.info("Добавлен предмет {}", item);
-        return itemMapper.toDto(repository.save(item));
+        Item savedItem = repository.save(item);
+        searchIndex.put(savedItem);
+        suggestIndex.put(savedItem);
+        searchCache.evictMatching(savedItem.getName(), savedItem.getDescription());
+        log.info("Добавлен предмет {}", savedItem);
+        return itemMapper.toDto(savedItem);
     }
 
     @Override
@@ -63,6 +83,8 @@ public class ItemServiceImpl implements ItemService {
         for (Item ownerItem : repository.findByOwnerId(userId, Pageable.unpaged())) {
             if (ownerItem.getId().equals(itemId)) {
                 Item updatedItem = getItemById(itemId);
+                String oldName = updatedItem.getName();
+                String oldDescription = updatedItem.getDescription();
                 if (itemDto.getName() != null) {
                     updatedItem.setName(itemDto.getName());
                 }
@@ -72,8 +94,13 @@ public class ItemServiceImpl implements ItemService {
                 if (itemDto.getAvailable() != null) {
                     updatedItem.setAvailable(itemDto.getAvailable());
                 }
-                log.info("Обновлен предмет {}", updatedItem);
-                return itemMapper.toDto(repository.save(updatedItem));
+                Item savedItem = repository.save(updatedItem);
+                requestCache.put(Item.class, itemId, savedItem);
+                searchIndex.put(savedItem);
+                suggestIndex.put(savedItem);
+                searchCache.evictMatching(oldName, oldDescription, savedItem.getName(), savedItem.getDescription());
+                log.info("Обновлен предмет {}", savedItem);
+                return itemMapper.toDto(savedItem);
             }
         }
         throw new ObjectNotFoundException("У владельца с id " + userId + " нет предмета с id " + itemId);
@@ -83,41 +110,84 @@ public class ItemServiceImpl implements ItemService {
     public ItemWithBookingDto getItemById(Long userId, Long itemId) {
         Item item = checkItem(itemId);
         ItemWithBookingDto itemDto = ownerItemMapper.toDto(item);
-        itemDto.setComments(commentService.getAllByItemId(itemId));
         if (item.getOwner().getId().equals(userId)) {
-            itemDto.setLastBooking(bookingService.getLastBooking(itemId));
-            itemDto.setNextBooking(bookingService.getNextBooking(itemId));
+            bookingService.setLastAndNextBookings(List.of(itemDto));
         }
-        log.info("Получен предмет {}", itemDto);
+        commentService.setLatestComments(List.of(itemDto));
+        log.info("Получен предмет {}", itemId);
         return itemDto;
     }
 
     @Override
     public List<ItemWithBookingDto> getItemsByOwner(Long ownerId, Integer from, Integer size) {
+        if (!userService.existsById(ownerId)) {
+            throw new ObjectNotFoundException("Пользователь с id " + ownerId + " не найден");
+        }
         List<ItemWithBookingDto> items = ownerItemMapper.toDto(repository.findByOwnerId(ownerId,
                 getPagination(from, size)));
-        for (ItemWithBookingDto item : items) {
-            item.setLastBooking(bookingService.getLastBooking(item.getId()));
-            item.setNextBooking(bookingService.getNextBooking(item.getId()));
-        }
-        log.info("Получен список предметов {} пользователя {}", items, userService.getUserById(ownerId));
+        bookingService.setLastAndNextBookings(items);
+        commentService.setLatestComments(items);
+        log.info("Получен список предметов {} пользователя {}", LogSummary.ids(items, ItemWithBookingDto::getId),
+                ownerId);
         return items;
     }
 
     @Override
     public List<ItemDto> getItemsBySearch(String text, Integer from, Integer size) {
-        text = text.toLowerCase().trim();
-        List<Item> items = text.isEmpty() ? new ArrayList<>() :
-                repository.findByText(text, getPagination(from, size));
-        log.info("Получен список предметов {} по поиску {}", items, text);
-        return itemMapper.toDto(items);
+        String normalizedText = text.toLowerCase().trim();
+        List<ItemDto> items = normalizedText.isEmpty() ? new ArrayList<>() :
+                searchCache.get(normalizedText, from, size, () -> searchIndex.search(normalizedText, from, size));
+        log.info("Получен список предметов {} по поиску {}", LogSummary.ids(items, ItemDto::getId), normalizedText);
+        return items;
+    }
+
+    @Override
+    public List<ItemDto> getItemsByRelevance(String text, Integer from, Integer size) {
+        String normalizedText = text.toLowerCase().trim();
+        List<ItemDto> items = normalizedText.isEmpty() ? new ArrayList<>() : searchCache.get(normalizedText, true,
+                from, size, () -> searchIndex.searchByRelevance(normalizedText, from, size));
+        log.info("Получен список предметов {} по поиску {} с сортировкой по релевантности",
+                LogSummary.ids(items, ItemDto::getId), normalizedText);
+        return items;
+    }
+
+    @Override
+    public List<ItemDto> getItemsByFuzzySearch(String text, Integer from, Integer size) {
+        String normalizedText = text.toLowerCase().trim();
+        List<ItemDto> items = normalizedText.isEmpty() ? new ArrayList<>() :
+                searchIndex.searchFuzzy(normalizedText, from, size);
+        log.info("Получен список предметов {} по нечеткому поиску {}", LogSummary.ids(items, ItemDto::getId),
+                normalizedText);
+        return items;
+    }
+
+    @Override
+    public List<String> getSuggestions(String prefix, Integer size) {
+        String normalizedPrefix = prefix.toLowerCase().trim();
+        List<String> suggestions = normalizedPrefix.isEmpty() ? new ArrayList<>() :
+                suggestIndex.suggest(normalizedPrefix, size);
+        log.debug("Получены подсказки {} по префиксу {}", suggestions, normalizedPrefix);
+        return suggestions;
     }
 
     @Override
     public Item getItemById(Long itemId) {
-        Item item = checkItem(itemId);
-        item.setOwner(userMapper.fromDto(userService.getUserById(item.getOwner().getId())));
-        return item;
+        return checkItem(itemId);
+    }
+
+    @Override
+    public List<Item> getItemsByIds(Collection<Long> itemIds) {
+        return repository.findAllById(itemIds);
+    }
+
+    @Override
+    public boolean existsById(Long itemId) {
+        return repository.existsById(itemId);
+    }
+
+    @Override
+    public boolean existsByOwnerId(Long ownerId) {
+        return repository.existsByOwnerId(ownerId);
     }
 
     @Override
@@ -125,22 +195,48 @@ public class ItemServiceImpl implements ItemService {
         return commentService.add(itemId, userId, commentDto);
     }
 
+    @Override
+    public List<CommentDto> getComments(Long itemId, Integer size, String cursor) {
+        return commentService.getByItemId(itemId, size, cursor);
+    }
+
+    @Override
+    public long countComments(Long itemId) {
+        return commentService.countByItemId(itemId);
+    }
+
     @Override
     public List<ItemDto> getAllByRequestId(Long requestId) {
         List<Item> items = repository.getAllByRequestId(requestId);
-        log.info("Получен список предметов {} по запросу {}", items, requestId);
+        log.info("Получен список предметов {} по запросу {}", LogSummary.ids(items, Item::getId), requestId);
         return items == null ? new ArrayList<>() : itemMapper.toDto(items);
     }
 
+    @Override
+    public List<ItemDto> getAllByRequestIdIn(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Item> items = repository.findByRequestIdIn(requestIds);
+        log.info("Получено {} предметов по {} запросам", items.size(), requestIds.size());
+        return itemMapper.toDto(items);
+    }
+
     private Item checkItem(Long itemId) {
-        Optional<Item> item = repository.findById(itemId);
+        Optional<Item> item = requestCache.get(Item.class, itemId, this::loadItem);
         if (item.isEmpty()) {
             throw new ObjectNotFoundException("Предмет с id " + itemId + " не найден");
         }
         return item.get();
     }
 
+    private Optional<Item> loadItem(Long itemId) {
+        Optional<Item> item = repository.findById(itemId);
+        item.ifPresent(found -> requestCache.put(User.class, found.getOwner().getId(), found.getOwner()));
+        return item;
+    }
+
     private Pageable getPagination(Integer from, Integer size) {
-        return new OffsetPageRequest(from, size, Sort.by(Sort.Direction.ASC, "item_id"));
+        return new OffsetPageRequest(from, size, Sort.by(Sort.Direction.ASC, "id"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,230 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.UserRemovedEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trie over lowercase name tokens of available items, loaded on first lookup.
+ * Every node keeps the highest token weight below it, so the best completions are found best-first
+ * without visiting the whole subtree of the prefix.
+ */
+@Slf4j
+@Component
+public class ItemSuggestIndex {
+
+    private static final Comparator<Entry> RANK = Comparator.comparingInt((Entry entry) -> entry.weight).reversed()
+            .thenComparing(entry -> entry.text)
+            .thenComparing(entry -> entry.node != null);
+
+    private final ItemRepository repository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String[]> tokensByItem = new HashMap<>();
+    private Node root = new Node();
+    private boolean loaded;
+
+    public ItemSuggestIndex(ItemRepository repository) {
+        this.repository = repository;
+    }
+
+    public List<String> suggest(String prefix, int size) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            List<String> suggestions = new ArrayList<>();
+            if (node == null || node.best == 0) {
+                return suggestions;
+            }
+            PriorityQueue<Entry> queue = new PriorityQueue<>(RANK);
+            queue.add(new Entry(prefix, node.best, node));
+            while (!queue.isEmpty() && suggestions.size() < size) {
+                Entry entry = queue.poll();
+                if (entry.node == null) {
+                    suggestions.add(entry.text);
+                    continue;
+                }
+                if (entry.node.count > 0) {
+                    queue.add(new Entry(entry.text, entry.node.count, null));
+                }
+                for (int i = 0; i < entry.node.keys.length; i++) {
+                    Node child = entry.node.children[i];
+                    if (child.best > 0) {
+                        queue.add(new Entry(entry.text + entry.node.keys[i], child.best, child));
+                    }
+                }
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(Item item) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            removeTokens(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                addTokens(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeTokens(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            tokensByItem.clear();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс подсказок по названиям предметов сброшен");
+    }
+
+    @EventListener
+    public void onUserRemoved(UserRemovedEvent event) {
+        invalidate();
+    }
+
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                for (Item item : repository.findByAvailableTrue()) {
+                    addTokens(item);
+                }
+                loaded = true;
+                log.info("Индекс подсказок загружен: {} предметов", tokensByItem.size());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addTokens(Item item) {
+        String[] tokens = ItemSearchIndex.tokens(item.getName()).toArray(new String[0]);
+        tokensByItem.put(item.getId(), tokens);
+        for (String token : tokens) {
+            update(token, 1);
+        }
+    }
+
+    private void removeTokens(Long itemId) {
+        String[] tokens = tokensByItem.remove(itemId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            update(token, -1);
+        }
+    }
+
+    private void update(String token, int delta) {
+        Node[] path = new Node[token.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < token.length(); i++) {
+            path[i + 1] = path[i].childOrCreate(token.charAt(i));
+        }
+        path[token.length()].count += delta;
+        for (int i = token.length(); i >= 0; i--) {
+            path[i].recomputeBest();
+        }
+    }
+
+    private static class Entry {
+
+        private final String text;
+        private final int weight;
+        private final Node node;
+
+        private Entry(String text, int weight, Node node) {
+            this.text = text;
+            this.weight = weight;
+            this.node = node;
+        }
+    }
+
+    /**
+     * Trie node with sorted child keys. Count is the number of available items having the token ending here.
+     */
+    private static class Node {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int count;
+        private int best;
+
+        private Node child(char key) {
+            int position = Arrays.binarySearch(keys, key);
+            return position >= 0 ? children[position] : null;
+        }
+
+        private Node childOrCreate(char key) {
+            int position = Arrays.binarySearch(keys, key);
+            if (position >= 0) {
+                return children[position];
+            }
+            int insertion = -(position + 1);
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertion);
+            System.arraycopy(children, 0, newChildren, 0, insertion);
+            System.arraycopy(keys, insertion, newKeys, insertion + 1, keys.length - insertion);
+            System.arraycopy(children, insertion, newChildren, insertion + 1, children.length - insertion);
+            Node child = new Node();
+            newKeys[insertion] = key;
+            newChildren[insertion] = child;
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        private void recomputeBest() {
+            int max = count;
+            for (Node child : children) {
+                max = Math.max(max, child.best);
+            }
+            best = max;
+        }
+    }
+}
@@ -21,4 +21,10 @@ public class ItemWithBookingDto {
     private BookingDto nextBooking;
     private List<CommentDto> comments;
     private ItemRequest itemRequest;
+    private Long commentCount;
+
+    public ItemWithBookingDto(Long id, String name, String description, Boolean available, BookingDto lastBooking,
+                              BookingDto nextBooking, List<CommentDto> comments, ItemRequest itemRequest) {
+        this(id, name, description, available, lastBooking, nextBooking, comments, itemRequest, null);
+    }
 }
\ No newline at end of file
@@ -6,13 +6,17 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.utils.LogSummary;
 import ru.practicum.shareit.utils.OffsetPageRequest;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
@@ -61,22 +65,28 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         checkUser(userId);
         ItemRequestDto request = requestMapper.convertToDto(checkRequest(requestId));
         request.setItems(itemService.getAllByRequestId(requestId));
-        log.info("Получен запрос {}", request);
+        log.info("Получен запрос {} с {} предметами", requestId, request.getItems().size());
         return request;
     }
 
     public List<ItemRequestDto> setItems(List<ItemRequest> requests) {
         List<ItemRequestDto> requestDtos = new ArrayList<>();
-        for (int i = 0; i < requests.size(); i++) {
-            requestDtos.add(requestMapper.convertToDto(requests.get(i)));
-            requestDtos.get(i).setItems(itemService.getAllByRequestId(requests.get(i).getId()));
+        Map<Long, ItemRequestDto> requestsById = new HashMap<>();
+        for (ItemRequest request : requests) {
+            ItemRequestDto requestDto = requestMapper.convertToDto(request);
+            requestDto.setItems(new ArrayList<>());
+            requestDtos.add(requestDto);
+            requestsById.put(request.getId(), requestDto);
         }
-        log.info("Получен список запросов {}", requestDtos);
+        for (ItemDto item : itemService.getAllByRequestIdIn(requestsById.keySet())) {
+            requestsById.get(item.getRequestId()).getItems().add(item);
+        }
+        log.info("Получен список запросов {}", LogSummary.ids(requestDtos, ItemRequestDto::getId));
         return requestDtos;
     }
 
     private void checkUser(Long userId) {
-        if (userService.getUserById(userId) == null) {
+        if (!userService.existsById(userId)) {
             throw new ObjectNotFoundException("Пользователь с id " + userId + " не найден");
         }
     }
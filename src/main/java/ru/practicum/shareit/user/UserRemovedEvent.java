@@ -0,0 +1,11 @@
+package ru.practicum.shareit.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserRemovedEvent {
+
+    private final Long userId;
+}
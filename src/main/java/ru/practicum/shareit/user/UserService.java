@@ -12,6 +12,8 @@ public interface UserService {
 
     UserDto getUserById(Long userId);
 
+    boolean existsById(Long userId);
+
     List<UserDto> getAllUsers();
 
     void removeUser(Long userId);
@@ -1,10 +1,13 @@
 package ru.practicum.shareit.user;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.LogSummary;
+import ru.practicum.shareit.utils.RequestEntityCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,10 +19,17 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository repository;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RequestEntityCache requestCache;
 
-    public UserServiceImpl(UserRepository repository, UserMapper userMapper) {
+    public UserServiceImpl(UserRepository repository,
+                           UserMapper userMapper,
+                           ApplicationEventPublisher eventPublisher,
+                           RequestEntityCache requestCache) {
         this.repository = repository;
         this.userMapper = userMapper;
+        this.eventPublisher = eventPublisher;
+        this.requestCache = requestCache;
     }
 
     @Override
@@ -44,7 +54,9 @@ public class UserServiceImpl implements UserService {
             updatedUser.setEmail(user.getEmail());
         }
         log.info("Обновлен пользователь {}", updatedUser);
-        return userMapper.toDto(repository.save(updatedUser));
+        User savedUser = repository.save(updatedUser);
+        requestCache.put(User.class, userId, savedUser);
+        return userMapper.toDto(savedUser);
     }
 
     @Override
@@ -54,10 +66,15 @@ public class UserServiceImpl implements UserService {
         return userMapper.toDto(user);
     }
 
+    @Override
+    public boolean existsById(Long userId) {
+        return repository.existsById(userId);
+    }
+
     @Override
     public List<UserDto> getAllUsers() {
         List<User> users = repository.findAll();
-        log.info("Получен список пользователей {}", users);
+        log.info("Получен список пользователей {}", LogSummary.ids(users, User::getId));
         List<UserDto> userDtos = new ArrayList<>();
         for (User user : users) {
             userDtos.add(userMapper.toDto(user));
@@ -73,10 +90,12 @@ public class UserServiceImpl implements UserService {
         }
         log.info("Удален пользователь {}", user.get());
         repository.deleteById(userId);
+        requestCache.evict(User.class, userId);
+        eventPublisher.publishEvent(new UserRemovedEvent(userId));
     }
 
     private User checkUser(Long userId) {
-        Optional<User> user = repository.findById(userId);
+        Optional<User> user = requestCache.get(User.class, userId, repository::findById);
         if (user.isEmpty()) {
             throw new ObjectNotFoundException("Пользователь с id " + userId + " не найден");
         }
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.utils;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Function;
+
+/**
+ * Bounded log arguments: a collection is written as its size and first ids, and only formatted when the message
+ * is actually written.
+ */
+public final class LogSummary {
+
+    static final int MAX_IDS = 10;
+
+    private LogSummary() {
+    }
+
+    public static <T> Object ids(Collection<T> values, Function<T, ?> id) {
+        return new Ids<>(values, id);
+    }
+
+    private static final class Ids<T> {
+
+        private final Collection<T> values;
+        private final Function<T, ?> id;
+
+        private Ids(Collection<T> values, Function<T, ?> id) {
+            this.values = values;
+            this.id = id;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder().append(values.size()).append(" [");
+            Iterator<T> iterator = values.iterator();
+            for (int i = 0; i < MAX_IDS && iterator.hasNext(); i++) {
+                builder.append(i == 0 ? "" : ", ").append(id.apply(iterator.next()));
+            }
+            return builder.append(iterator.hasNext() ? ", ...]" : "]").toString();
+        }
+    }
+}
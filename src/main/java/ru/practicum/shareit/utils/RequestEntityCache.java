@@ -0,0 +1,67 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Entities looked up while handling the current HTTP request, keyed by type and id, so services calling each other
+ * share one load per entity. Outside a request every lookup goes to the loader.
+ */
+@Component
+public class RequestEntityCache {
+
+    private static final String ATTRIBUTE = RequestEntityCache.class.getName();
+
+    public <T> Optional<T> get(Class<T> type, Long id, Function<Long, Optional<T>> loader) {
+        Map<String, Optional<?>> entities = entities();
+        if (entities == null) {
+            return loader.apply(id);
+        }
+        String key = key(type, id);
+        Optional<?> entity = entities.get(key);
+        if (entity == null) {
+            entity = loader.apply(id);
+            entities.put(key, entity);
+        }
+        return entity.map(type::cast);
+    }
+
+    public <T> void put(Class<T> type, Long id, T entity) {
+        Map<String, Optional<?>> entities = entities();
+        if (entities != null) {
+            entities.put(key(type, id), Optional.of(entity));
+        }
+    }
+
+    public void evict(Class<?> type, Long id) {
+        Map<String, Optional<?>> entities = entities();
+        if (entities != null) {
+            entities.remove(key(type, id));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Optional<?>> entities() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<String, Optional<?>> entities =
+                (Map<String, Optional<?>>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (entities == null) {
+            entities = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE, entities, RequestAttributes.SCOPE_REQUEST);
+        }
+        return entities;
+    }
+
+    private static String key(Class<?> type, Long id) {
+        return type.getName() + '#' + id;
+    }
+}
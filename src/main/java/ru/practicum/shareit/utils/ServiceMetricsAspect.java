@@ -0,0 +1,96 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingState;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Times every public method of the service implementations as shareit.service, tagged by service, method,
+ * booking state and exception. Repository calls are timed by Spring Data as spring.data.repository.invocations.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "shareit.metrics.service.enabled", matchIfMissing = true)
+public class ServiceMetricsAspect {
+
+    static final String METRIC = "shareit.service";
+    static final String NONE = "none";
+
+    private static final String STATE_PARAMETER = "state";
+    private static final Set<String> STATES = Arrays.stream(BookingState.values())
+            .map(Enum::name)
+            .collect(Collectors.toSet());
+
+    private final MeterRegistry registry;
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public ServiceMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * ru.practicum.shareit..*ServiceImpl.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+            timers.computeIfAbsent(signature.getMethod(), method -> new MethodTimers(signature))
+                    .get(joinPoint.getArgs(), exception)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Timers of one method by state and exception, so the registry is only asked once per combination.
+     */
+    private class MethodTimers {
+
+        private final String service;
+        private final String method;
+        private final int stateIndex;
+        private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+        MethodTimers(MethodSignature signature) {
+            service = signature.getDeclaringType().getSimpleName();
+            method = signature.getName();
+            String[] names = signature.getParameterNames();
+            stateIndex = names == null ? -1 : Arrays.asList(names).indexOf(STATE_PARAMETER);
+        }
+
+        Timer get(Object[] args, String exception) {
+            String state = state(args);
+            return timers.computeIfAbsent(state + ':' + exception, key -> Timer.builder(METRIC)
+                    .tag("service", service)
+                    .tag("method", method)
+                    .tag("state", state)
+                    .tag("exception", exception)
+                    .register(registry));
+        }
+
+        private String state(Object[] args) {
+            if (stateIndex < 0 || !(args[stateIndex] instanceof String)) {
+                return NONE;
+            }
+            return STATES.contains(args[stateIndex]) ? (String) args[stateIndex] : "UNKNOWN";
+        }
+    }
+}
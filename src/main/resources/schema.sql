@@ -30,6 +30,7 @@ CREATE TABLE IF NOT EXISTS bookings (
     item_id INTEGER NOT NULL REFERENCES items(item_id) ON DELETE CASCADE ON UPDATE CASCADE,
     booker_id INTEGER NOT NULL REFERENCES users(user_id) ON DELETE CASCADE ON UPDATE CASCADE,
     status varchar,
+    owner_id INTEGER NOT NULL REFERENCES users(user_id) ON DELETE CASCADE ON UPDATE CASCADE,
     CONSTRAINT booking_id_pk PRIMARY KEY (booking_id)
 );
 
@@ -40,4 +41,24 @@ CREATE TABLE IF NOT EXISTS comments (
     author_id INTEGER NOT NULL REFERENCES users(user_id) ON DELETE CASCADE ON UPDATE CASCADE,
     create_date TIMESTAMP WITHOUT TIME ZONE,
     CONSTRAINT comment_id_pk PRIMARY KEY (comment_id)
-);
\ No newline at end of file
+);
+
+-- Базы, созданные до появления bookings.owner_id: добавить столбец и заполнить его владельцем предмета.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id INTEGER
+    REFERENCES users(user_id) ON DELETE CASCADE ON UPDATE CASCADE;
+UPDATE bookings b SET owner_id = (SELECT i.owner_id FROM items i WHERE i.item_id = b.item_id)
+    WHERE b.owner_id IS NULL;
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id);
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, create_date, comment_id);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_end_idx ON bookings (booker_id, end_date);
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS bookings_booker_status_idx ON bookings (booker_id, status);
+CREATE INDEX IF NOT EXISTS bookings_owner_end_idx ON bookings (owner_id, end_date);
+CREATE INDEX IF NOT EXISTS bookings_owner_start_idx ON bookings (owner_id, start_date);
+CREATE INDEX IF NOT EXISTS bookings_owner_status_idx ON bookings (owner_id, status);
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS bookings_item_end_idx ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS bookings_item_status_idx ON bookings (item_id, status);
@@ -10,7 +10,11 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingApproveResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -20,7 +24,9 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -50,6 +56,38 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(bookingDto.getStatus().toString())));
     }
 
+    @Test
+    public void addBookings() throws Exception {
+        BookingDto bookingDto = new BookingDto(1L, getLTD("+", 2), getLTD("+", 3),
+                null, 1L, null, 1L, BookingStatus.WAITING);
+        when(service.addAll(anyLong(), anyList())).thenReturn(List.of(
+                new BookingBatchResultDto(0, bookingDto, null),
+                new BookingBatchResultDto(1, null, "Предмет с id 1 уже забронирован на указанные даты")));
+
+        mockMvc.perform(postBatchRequest(List.of(bookingDto, bookingDto), 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].booking.id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].error", is("Предмет с id 1 уже забронирован на указанные даты")));
+    }
+
+    @Test
+    public void addEmptyBookings() throws Exception {
+        mockMvc.perform(postBatchRequest(List.of(), 1L))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void addBookingsWithoutStart() throws Exception {
+        BookingDto bookingDto = new BookingDto(1L, null, getLTD("+", 3),
+                null, 1L, null, 1L, BookingStatus.WAITING);
+
+        mockMvc.perform(postBatchRequest(List.of(bookingDto), 1L))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void addBookingWithoutHeader() throws Exception {
         BookingDto bookingDto = new BookingDto(1L, getLTD("+", 2), getLTD("+", 3),
@@ -128,6 +166,42 @@ public class BookingControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void makeApproveAll() throws Exception {
+        when(service.makeApproveAll(1L, List.of(1L, 2L, 3L), false))
+                .thenReturn(new BookingApproveResultDto(List.of(1L, 3L), List.of(2L)));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch(url + "/batch")
+                        .param("approved", "false")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2, 3]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", hasSize(2)))
+                .andExpect(jsonPath("$.updated[1]", is(3)))
+                .andExpect(jsonPath("$.skipped[0]", is(2)));
+    }
+
+    @Test
+    public void makeApproveAllWithEmptyIds() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.patch(url + "/batch")
+                        .param("approved", "true")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void stream() throws Exception {
+        when(service.subscribe(1L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/stream")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+
     @Test
     public void getById() throws Exception {
         BookingDto bookingDto = new BookingDto(1L, getLTD("+", 2), getLTD("+", 3),
@@ -218,6 +292,41 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].status", is(bookingDto.getStatus().toString())));
     }
 
+    @Test
+    public void getCompactByUserAndState() throws Exception {
+        BookingShortDto bookingDto = new BookingShortDto(1L, getLTD("+", 2), getLTD("+", 3),
+                BookingStatus.WAITING, 1L, "item", 2L, "booker");
+        when(service.getCompactByUserAndState(2L, "ALL", 0, 40, null)).thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .header("X-Sharer-User-Id", 2L)
+                        .param("view", "compact"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].itemName", is("item")))
+                .andExpect(jsonPath("$[0].bookerName", is("booker")))
+                .andExpect(jsonPath("$[0].item").doesNotExist());
+    }
+
+    @Test
+    public void getCompactByOwnerAndStateWithCursor() throws Exception {
+        BookingShortDto bookingDto = new BookingShortDto(7L, getLTD("+", 2), getLTD("+", 3),
+                BookingStatus.WAITING, 1L, "item", 2L, "booker");
+        String cursor = new BookingCursor(getLTD("+", 10), 9L).encode();
+        when(service.getCompactByOwnerAndState(1L, "WAITING", 0, 1, cursor)).thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("view", "compact")
+                        .param("state", "WAITING")
+                        .param("size", "1")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        new BookingCursor(bookingDto.getEnd(), 7L).encode()));
+    }
+
     @Test
     public void getByOwnerAndStateWithoutHeader() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.get(url + "/owner")
@@ -243,6 +352,38 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].status", is(bookingDto.getStatus().toString())));
     }
 
+    @Test
+    public void getByUserAndStateWithCursor() throws Exception {
+        BookingDto bookingDto = new BookingDto(5L, getLTD("+", 2), getLTD("+", 3),
+                null, 1L, null, 1L, BookingStatus.WAITING);
+        when(service.getByUserAndStateAfter(any(), any(), any(), any())).thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursor", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        new BookingCursor(bookingDto.getEnd(), bookingDto.getId()).encode()))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+    }
+
+    @Test
+    public void getByOwnerAndStateWithCursorOnLastPage() throws Exception {
+        BookingDto bookingDto = new BookingDto(5L, getLTD("+", 2), getLTD("+", 3),
+                null, 1L, null, 1L, BookingStatus.WAITING);
+        when(service.getByOwnerAndStateAfter(any(), any(), any(), any())).thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursor", new BookingCursor(getLTD("+", 5), 7L).encode())
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
     private MockHttpServletRequestBuilder postRequest(BookingDto booking,
                                                       Long userId) throws JsonProcessingException {
         return MockMvcRequestBuilders.post(url)
@@ -252,6 +393,15 @@ public class BookingControllerTest {
                 .content(this.objectMapper.writeValueAsString(booking));
     }
 
+    private MockHttpServletRequestBuilder postBatchRequest(List<BookingDto> bookings,
+                                                           Long userId) throws JsonProcessingException {
+        return MockMvcRequestBuilders.post(url + "/batch")
+                .header("X-Sharer-User-Id", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(this.objectMapper.writeValueAsString(bookings));
+    }
+
     private MockHttpServletRequestBuilder patchRequest(Long bookingId, String approve, Long ownerId) {
         return MockMvcRequestBuilders
                 .patch(url + "/" + bookingId)
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BookingCursorTest {
+
+    @Test
+    public void encodeAndDecode() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2030, 1, 2, 3, 4, 5, 6000), 42L);
+
+        BookingCursor decoded = BookingCursor.decode(cursor.encode());
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(cursor);
+    }
+
+    @Test
+    public void decodeEmpty() {
+        assertThat(BookingCursor.decode(null)).isNull();
+        assertThat(BookingCursor.decode("")).isNull();
+    }
+
+    @Test
+    public void decodeWrongCursor() {
+        assertThatThrownBy(() ->
+                BookingCursor.decode("bm90IGEgY3Vyc29y"))
+                .isInstanceOf(ValidationException.class);
+    }
+}
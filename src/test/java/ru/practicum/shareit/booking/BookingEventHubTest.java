@@ -0,0 +1,210 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookingEventHubTest {
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final BookingEventHub hub = new BookingEventHub(tasks::add, null, 2, BookingEventHub.SEND_TIMEOUT);
+
+    @Test
+    public void publishToBookerAndOwner() {
+        hub.subscribe(1L);
+        hub.subscribe(2L);
+        hub.subscribe(3L);
+
+        hub.onBookingChanged(event(1L, 2L));
+
+        assertThat(tasks).hasSize(2);
+    }
+
+    @Test
+    public void scheduleOneSenderPerSubscriber() {
+        hub.subscribe(2L);
+
+        hub.onBookingChanged(event(1L, 2L));
+        hub.onBookingChanged(event(1L, 2L));
+        assertThat(tasks).hasSize(1);
+
+        tasks.remove(0).run();
+        hub.onBookingChanged(event(1L, 2L));
+        assertThat(tasks).hasSize(1);
+        assertThat(hub.getSubscriberCount(2L)).isEqualTo(1);
+    }
+
+    @Test
+    public void evictSlowSubscriber() {
+        hub.subscribe(2L);
+        hub.subscribe(2L);
+
+        hub.onBookingChanged(event(1L, 2L));
+        hub.onBookingChanged(event(1L, 2L));
+        assertThat(hub.getSubscriberCount(2L)).isEqualTo(2);
+
+        hub.onBookingChanged(event(1L, 2L));
+        assertThat(hub.getSubscriberCount(2L)).isZero();
+    }
+
+    @Test
+    public void failEmitterOnSendError() {
+        FailingEmitter emitter = new FailingEmitter();
+        BookingEventHub failingHub = new BookingEventHub(tasks::add, null, 2, BookingEventHub.SEND_TIMEOUT) {
+            @Override
+            SseEmitter newEmitter() {
+                return emitter;
+            }
+        };
+        failingHub.subscribe(2L);
+
+        failingHub.onBookingChanged(event(1L, 2L));
+        tasks.remove(0).run();
+
+        assertThat(emitter.error).isInstanceOf(IOException.class);
+        assertThat(failingHub.getSubscriberCount(2L)).isZero();
+    }
+
+    @Test
+    public void disconnectStalledSend() throws Exception {
+        StalledEmitter emitter = new StalledEmitter();
+        BookingEventHub stalledHub = new BookingEventHub(tasks::add, null, 2, BookingEventHub.SEND_TIMEOUT) {
+            @Override
+            SseEmitter newEmitter() {
+                return emitter;
+            }
+        };
+        stalledHub.subscribe(2L);
+        stalledHub.onBookingChanged(event(1L, 2L));
+        Thread sender = new Thread(tasks.remove(0));
+        sender.start();
+        assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        stalledHub.disconnectStalled(System.nanoTime());
+        assertThat(stalledHub.getSubscriberCount(2L)).isEqualTo(1);
+        stalledHub.disconnectStalled(System.nanoTime() + BookingEventHub.SEND_TIMEOUT.toNanos() * 2);
+
+        sender.join(5000);
+        assertThat(sender.isAlive()).isFalse();
+        assertThat(stalledHub.getSubscriberCount(2L)).isZero();
+    }
+
+    @Test
+    public void keepSubscriberAddedWhileLastOneLeaves() throws Exception {
+        CountDownLatch adding = new CountDownLatch(1);
+        CountDownLatch left = new CountDownLatch(1);
+        Queue<SseEmitter> emitters = new ConcurrentLinkedQueue<>(List.of(new FailingEmitter(), new SseEmitter()));
+        BookingEventHub racingHub = new BookingEventHub(Runnable::run, null, 2, BookingEventHub.SEND_TIMEOUT) {
+            @Override
+            SseEmitter newEmitter() {
+                return emitters.poll();
+            }
+
+            @Override
+            <T> Set<T> newSubscriberSet() {
+                return new PausingSet<>(adding, left);
+            }
+        };
+        racingHub.subscribe(2L);
+        Thread leaving = new Thread(() -> {
+            try {
+                adding.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            racingHub.onBookingChanged(event(1L, 2L));
+            left.countDown();
+        });
+        leaving.start();
+
+        racingHub.subscribe(2L);
+        leaving.join(5000);
+
+        assertThat(leaving.isAlive()).isFalse();
+        assertThat(racingHub.getSubscriberCount(2L)).isEqualTo(1);
+    }
+
+    private BookingChangedEvent event(Long ownerId, Long bookerId) {
+        return new BookingChangedEvent(ownerId, new BookingEventDto(1L, 1L, bookerId, BookingStatus.WAITING));
+    }
+
+    private static class FailingEmitter extends SseEmitter {
+
+        private Throwable error;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            throw new IOException("Broken pipe");
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            error = ex;
+        }
+    }
+
+    /**
+     * Blocks the send until the emitter is failed, as a container closing the response would.
+     */
+    private static class StalledEmitter extends SseEmitter {
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch failed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                failed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Response closed");
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            failed.countDown();
+        }
+    }
+
+    /**
+     * Holds the second add until the first subscriber has left or a short wait runs out, which widens the window
+     * between finding a user's subscribers and adding to them.
+     */
+    private static class PausingSet<T> extends CopyOnWriteArraySet<T> {
+
+        private final CountDownLatch adding;
+        private final CountDownLatch left;
+
+        PausingSet(CountDownLatch adding, CountDownLatch left) {
+            this.adding = adding;
+            this.left = left;
+        }
+
+        @Override
+        public boolean add(T value) {
+            if (!isEmpty()) {
+                adding.countDown();
+                try {
+                    left.await(500, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.add(value);
+        }
+    }
+}
@@ -12,19 +12,33 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
 @SpringBootTest
@@ -40,9 +54,14 @@ public class BookingIntegrationTest {
     private ObjectMapper objectMapper;
     @Autowired
     private BookingRepository repository;
+    @Autowired
+    private BookingIntervalIndex intervalIndex;
+    @Autowired
+    private BookingService bookingService;
 
     @BeforeEach
     public void setUp() throws Exception {
+        intervalIndex.invalidateAll();
         UserDto owner = new UserDto(null, "owner", "mail@qwerty.com");
         UserDto booker = new UserDto(null, "booker", "asd@qwerty.com");
         ItemDto item = new ItemDto(null, "item", "desc", true, null);
@@ -61,7 +80,7 @@ public class BookingIntegrationTest {
 
     @Test
     public void addBooking() throws Exception {
-        BookingDto bookingDto = new BookingDto(null, getLTD(2), getLTD(3), null, 1L,
+        BookingDto bookingDto = new BookingDto(null, getLTD(4), getLTD(5), null, 1L,
                 null, null, null);
         mockMvc.perform(postRequest(bookingDto, 2L));
 
@@ -75,6 +94,78 @@ public class BookingIntegrationTest {
         assertThat(foundBooking.get().getStatus()).isEqualTo(BookingStatus.WAITING);
     }
 
+    @Test
+    public void addOverlappingBooking() throws Exception {
+        BookingDto bookingDto = new BookingDto(null, getLTD(1), getLTD(4), null, 1L,
+                null, null, null);
+        mockMvc.perform(postRequest(bookingDto, 2L))
+                .andExpect(status().isBadRequest());
+
+        assertThat(repository.findById(3L)).isEmpty();
+    }
+
+    @Test
+    public void addBookingAfterRejectedOverlap() throws Exception {
+        mockMvc.perform(patchRequest(1L, "false", 1L));
+        BookingDto bookingDto = new BookingDto(null, getLTD(1), getLTD(4), null, 1L,
+                null, null, null);
+        mockMvc.perform(postRequest(bookingDto, 2L))
+                .andExpect(status().isOk());
+
+        assertThat(repository.findById(3L)).isNotEmpty();
+    }
+
+    @Test
+    public void addBookings() throws Exception {
+        List<BookingDto> bookingDtos = List.of(
+                new BookingDto(null, getLTD(4), getLTD(5), null, 1L, null, null, null),
+                new BookingDto(null, getLTD(4), getLTD(6), null, 1L, null, null, null),
+                new BookingDto(null, getLTD(1), getLTD(4), null, 2L, null, null, null),
+                new BookingDto(null, getLTD(4), getLTD(5), null, 99L, null, null, null),
+                new BookingDto(null, getLTD(4), getLTD(5), null, 2L, null, null, null));
+        String response = mockMvc.perform(MockMvcRequestBuilders.post(url + "/batch")
+                        .header("X-Sharer-User-Id", 2L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(bookingDtos)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        List<BookingBatchResultDto> results = List.of(objectMapper.readValue(response,
+                BookingBatchResultDto[].class));
+
+        assertThat(results).extracting(BookingBatchResultDto::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(results.get(0).getBooking().getId()).isEqualTo(3L);
+        assertThat(results.get(1).getError()).contains("уже забронирован");
+        assertThat(results.get(2).getError()).contains("уже забронирован");
+        assertThat(results.get(3).getError()).contains("не найден");
+        assertThat(results.get(4).getBooking().getId()).isEqualTo(4L);
+        Booking saved = repository.findById(4L).get();
+        assertThat(saved.getItem().getId()).isEqualTo(2L);
+        assertThat(saved.getBooker().getId()).isEqualTo(2L);
+        assertThat(saved.getOwnerId()).isEqualTo(1L);
+        assertThat(saved.getStatus()).isEqualTo(BookingStatus.WAITING);
+        assertThat(repository.findAll()).hasSize(4);
+        mockMvc.perform(postRequest(bookingDtos.get(1), 2L))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void streamBookingChanges() throws Exception {
+        MvcResult stream = mockMvc.perform(MockMvcRequestBuilders.get(url + "/stream")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(patchRequest(1L, "true", 1L));
+
+        String content = "";
+        for (int i = 0; i < 50 && !content.contains("APPROVED"); i++) {
+            Thread.sleep(100);
+            content = stream.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        }
+        assertThat(content).contains("event:booking", "id:1", "\"status\":\"APPROVED\"");
+    }
+
     @Test
     public void setApprove() throws Exception {
         mockMvc.perform(patchRequest(1L, "true", 1L));
@@ -84,6 +175,56 @@ public class BookingIntegrationTest {
         assertThat(foundBooking.get().getStatus()).isEqualTo(BookingStatus.APPROVED);
     }
 
+    @Test
+    public void setApproveConcurrently() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BookingStatus>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            boolean approved = i % 2 == 0;
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    return bookingService.makeApprove(1L, 1L, approved).getStatus();
+                } catch (ValidationException e) {
+                    return null;
+                }
+            }));
+        }
+        start.countDown();
+        List<BookingStatus> transitions = new ArrayList<>();
+        for (Future<BookingStatus> result : results) {
+            BookingStatus status = result.get(10, TimeUnit.SECONDS);
+            if (status != null) {
+                transitions.add(status);
+            }
+        }
+        executor.shutdown();
+
+        assertThat(transitions).hasSize(1);
+        assertThat(repository.findById(1L).get().getStatus()).isEqualTo(transitions.get(0));
+    }
+
+    @Test
+    public void setRejectAll() throws Exception {
+        mockMvc.perform(patchRequest(2L, "true", 1L));
+        mockMvc.perform(MockMvcRequestBuilders.patch(url + "/batch")
+                        .param("approved", "false")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2, 99]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", contains(1)))
+                .andExpect(jsonPath("$.skipped", contains(2, 99)));
+
+        assertThat(repository.findById(1L).get().getStatus()).isEqualTo(BookingStatus.REJECTED);
+        assertThat(repository.findById(2L).get().getStatus()).isEqualTo(BookingStatus.APPROVED);
+        mockMvc.perform(postRequest(new BookingDto(null, getLTD(1), getLTD(4), null, 1L,
+                        null, null, null), 2L))
+                .andExpect(status().isOk());
+    }
+
     @Test
     public void getById() {
         Optional<Booking> foundBooking = repository.findById(1L);
@@ -104,7 +245,7 @@ public class BookingIntegrationTest {
 
     @Test
     public void getAllForOwner() {
-        List<Booking> bookings = repository.findByItemOwnerId(1L, Pageable.unpaged());
+        List<Booking> bookings = repository.findByOwnerId(1L, Pageable.unpaged());
         assertThat(bookings).hasSize(2);
         assertThat(bookings.get(0).getId()).isEqualTo(1L);
         assertThat(bookings.get(0).getItem().getId()).isEqualTo(1L);
@@ -0,0 +1,201 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRemovedEvent;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingIntervalIndexTest {
+
+    @InjectMocks
+    private BookingIntervalIndex index;
+
+    @Mock
+    private BookingRepository repository;
+
+    private final Item item = new Item(1L, "item", "desc", true, new User(), null);
+
+    @Test
+    public void hasOverlapLoadsTreeOnce() {
+        Booking booking = new Booking(1L, getLTD(10), getLTD(20), item, new User(), BookingStatus.APPROVED);
+        when(repository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), anyList(), any()))
+                .thenReturn(List.of(booking));
+
+        assertThat(index.hasOverlap(1L, getLTD(15), getLTD(25))).isTrue();
+        assertThat(index.hasOverlap(1L, getLTD(20), getLTD(25))).isFalse();
+        verify(repository, times(1)).findByItemIdAndStatusInAndEndIsAfter(eq(1L), anyList(), any());
+    }
+
+    @Test
+    public void saveIfFree() {
+        Booking booking = new Booking(null, getLTD(10), getLTD(20), item, new User(), BookingStatus.WAITING);
+        Booking overlapping = new Booking(null, getLTD(15), getLTD(25), item, new User(), BookingStatus.WAITING);
+        when(repository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), anyList(), any())).thenReturn(List.of());
+
+        Optional<Booking> saved = index.saveIfFree(booking, added -> {
+            added.setId(1L);
+            return added;
+        });
+        Optional<Booking> rejected = index.saveIfFree(overlapping, added -> {
+            throw new AssertionError("Overlapping booking must not be saved");
+        });
+
+        assertThat(saved).isNotEmpty();
+        assertThat(rejected).isEmpty();
+    }
+
+    @Test
+    public void saveAllIfFree() {
+        Booking existing = new Booking(1L, getLTD(10), getLTD(20), item, new User(), BookingStatus.APPROVED);
+        Booking free = new Booking(null, getLTD(20), getLTD(30), item, new User(), BookingStatus.WAITING);
+        Booking overlapsExisting = new Booking(null, getLTD(5), getLTD(15), item, new User(), BookingStatus.WAITING);
+        Booking overlapsBatch = new Booking(null, getLTD(25), getLTD(35), item, new User(), BookingStatus.WAITING);
+        when(repository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), anyList(), any()))
+                .thenReturn(List.of(existing));
+
+        List<Booking> saved = index.saveAllIfFree(List.of(free, overlapsExisting, overlapsBatch), added -> {
+            added.forEach(booking -> booking.setId(2L));
+            return added;
+        });
+
+        assertThat(saved).containsExactly(free);
+        assertThat(index.hasOverlap(1L, getLTD(21), getLTD(22))).isTrue();
+    }
+
+    @Test
+    public void saveAllIfFreeUndoneOnRollback() {
+        Booking booking = new Booking(null, getLTD(10), getLTD(20), item, new User(), BookingStatus.WAITING);
+        when(repository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), anyList(), any())).thenReturn(List.of());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.saveAllIfFree(List.of(booking), added -> {
+                added.get(0).setId(1L);
+                return added;
+            });
+            assertThat(index.hasOverlap(1L, getLTD(15), getLTD(25))).isTrue();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(
+                            TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(index.hasOverlap(1L, getLTD(15), getLTD(25))).isFalse();
+    }
+
+    @Test
+    public void remove() {
+        Booking booking = new Booking(1L, getLTD(10), getLTD(20), item, new User(), BookingStatus.WAITING);
+        when(repository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), anyList(), any()))
+                .thenReturn(List.of(booking));
+
+        assertThat(index.hasOverlap(1L, getLTD(15), getLTD(25))).isTrue();
+        index.remove(booking);
+        assertThat(index.hasOverlap(1L, getLTD(15), getLTD(25))).isFalse();
+    }
+
+    @Test
+    public void removeAfterCommit() {
+        Booking booking = new Booking(1L, getLTD(10), getLTD(20), item, new User(), BookingStatus.WAITING);
+        when(repository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), anyList(), any()))
+                .thenReturn(List.of(booking));
+        assertThat(index.hasOverlap(1L, getLTD(15), getLTD(25))).isTrue();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.removeAfterCommit(booking);
+            assertThat(index.hasOverlap(1L, getLTD(15), getLTD(25))).isTrue();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(index.hasOverlap(1L, getLTD(15), getLTD(25))).isFalse();
+    }
+
+    @Test
+    public void invalidateOnUserRemoved() {
+        when(repository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), anyList(), any())).thenReturn(List.of());
+
+        index.hasOverlap(1L, getLTD(15), getLTD(25));
+        index.onUserRemoved(new UserRemovedEvent(1L));
+        index.hasOverlap(1L, getLTD(15), getLTD(25));
+        verify(repository, times(2)).findByItemIdAndStatusInAndEndIsAfter(eq(1L), anyList(), any());
+    }
+
+    @Test
+    public void retireTreeOnlyAfterWriterLeavesIt() throws Exception {
+        List<Booking> committed = new CopyOnWriteArrayList<>();
+        when(repository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), anyList(), any()))
+                .thenAnswer(invocation -> new ArrayList<>(committed));
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Booking booking = new Booking(null, getLTD(10), getLTD(20), item, new User(), BookingStatus.WAITING);
+        Booking overlapping = new Booking(null, getLTD(15), getLTD(25), item, new User(), BookingStatus.WAITING);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<Optional<Booking>> first = executor.submit(() -> index.saveIfFree(booking, added -> {
+                saving.countDown();
+                awaitQuietly(release);
+                added.setId(1L);
+                committed.add(added);
+                return added;
+            }));
+            assertThat(saving.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<?> invalidation = executor.submit(() -> index.onUserRemoved(new UserRemovedEvent(2L)));
+            Future<Optional<Booking>> second = executor.submit(() -> index.saveIfFree(overlapping, added -> {
+                added.setId(2L);
+                return added;
+            }));
+            Thread.sleep(100);
+            assertThat(invalidation.isDone()).isFalse();
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isNotEmpty();
+            invalidation.get(5, TimeUnit.SECONDS);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEmpty();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private LocalDateTime getLTD(int sec) {
+        return LocalDateTime.now().plusSeconds(sec).truncatedTo(ChronoUnit.SECONDS);
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookingIntervalTreeTest {
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    public void overlapsWithEmptyTree() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+
+        assertThat(tree.overlaps(getLTD(0), getLTD(10))).isFalse();
+    }
+
+    @Test
+    public void overlapsIsHalfOpen() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.insert(1L, getLTD(10), getLTD(20));
+
+        assertThat(tree.overlaps(getLTD(0), getLTD(10))).isFalse();
+        assertThat(tree.overlaps(getLTD(20), getLTD(30))).isFalse();
+        assertThat(tree.overlaps(getLTD(0), getLTD(11))).isTrue();
+        assertThat(tree.overlaps(getLTD(19), getLTD(30))).isTrue();
+        assertThat(tree.overlaps(getLTD(12), getLTD(15))).isTrue();
+        assertThat(tree.overlaps(getLTD(5), getLTD(25))).isTrue();
+    }
+
+    @Test
+    public void overlapsWithLongIntervalInLeftSubtree() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.insert(1L, getLTD(0), getLTD(100));
+        for (long i = 2; i < 20; i++) {
+            tree.insert(i, getLTD((int) i * 10), getLTD((int) i * 10 + 1));
+        }
+
+        assertThat(tree.overlaps(getLTD(55), getLTD(56))).isTrue();
+        assertThat(tree.overlaps(getLTD(105), getLTD(106))).isFalse();
+    }
+
+    @Test
+    public void remove() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.insert(1L, getLTD(10), getLTD(20));
+        tree.insert(2L, getLTD(30), getLTD(40));
+        tree.remove(1L, getLTD(10));
+
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.overlaps(getLTD(12), getLTD(15))).isFalse();
+        assertThat(tree.overlaps(getLTD(32), getLTD(35))).isTrue();
+    }
+
+    @Test
+    public void matchesLinearScanOnRandomIntervals() {
+        Random random = new Random(42);
+        BookingIntervalTree tree = new BookingIntervalTree();
+        List<int[]> intervals = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int start = random.nextInt(10_000);
+            int end = start + 1 + random.nextInt(50);
+            intervals.add(new int[]{start, end});
+            tree.insert((long) i, getLTD(start), getLTD(end));
+        }
+        for (int i = 0; i < 500; i += 3) {
+            tree.remove((long) i, getLTD(intervals.get(i)[0]));
+            intervals.set(i, null);
+        }
+        for (int i = 0; i < 2_000; i++) {
+            int start = random.nextInt(10_000);
+            int end = start + 1 + random.nextInt(50);
+            boolean expected = false;
+            for (int[] interval : intervals) {
+                if (interval != null && interval[0] < end && start < interval[1]) {
+                    expected = true;
+                    break;
+                }
+            }
+            assertThat(tree.overlaps(getLTD(start), getLTD(end))).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void removeEndedBy() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        for (long i = 0; i < 100; i++) {
+            tree.insert(i, getLTD((int) i * 10), getLTD((int) i * 10 + 5));
+        }
+        tree.insert(100L, getLTD(0), getLTD(2_000));
+
+        assertThat(tree.removeEndedBy(getLTD(505))).isEqualTo(51);
+        assertThat(tree.size()).isEqualTo(50);
+        assertThat(tree.overlaps(getLTD(0), getLTD(500))).isTrue();
+        assertThat(tree.overlaps(getLTD(1_000), getLTD(1_010))).isTrue();
+        tree.remove(100L, getLTD(0));
+        assertThat(tree.overlaps(getLTD(0), getLTD(505))).isFalse();
+        assertThat(tree.overlaps(getLTD(505), getLTD(515))).isTrue();
+    }
+
+    private LocalDateTime getLTD(int min) {
+        return base.plusMinutes(min);
+    }
+}
@@ -0,0 +1,239 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.requests.ItemRequest;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.utils.DataSeeder;
+import ru.practicum.shareit.utils.OffsetPageRequest;
+import ru.practicum.shareit.utils.RecordingStatementInspector;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+/**
+ * Plans of the booking queries on H2, explained with realistic parameters over seeded and analyzed tables.
+ * This guards the H2 plans only: Postgres has its own optimizer and needs its own EXPLAIN before relying on an index.
+ */
+@ExtendWith(SpringExtension.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.utils.RecordingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Sql(scripts = "/schema.sql")
+@Sql(scripts = "/delete-data.sql", executionPhase = AFTER_TEST_METHOD)
+public class BookingQueryPlanTest {
+
+    private final List<BookingStatus> statuses = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private static final int PAGE = 10;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final Timestamp time = Timestamp.valueOf(now);
+
+    @Autowired
+    private BookingRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    public void setUp() {
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void bookerQueriesUseIndexes() {
+        seed();
+        repository.findByBookerId(1L, getPagination());
+        assertUsesForeignKeyIndex("BOOKER_ID", 1L, PAGE);
+        repository.findByBookerIdAndStartIsBeforeAndEndIsAfter(1L, now, now, getPagination());
+        assertUsesIndex("BOOKINGS_BOOKER_START_IDX", 1L, time, time, PAGE);
+        repository.findByBookerIdAndEndIsBefore(1L, now, getPagination());
+        assertUsesIndex("BOOKINGS_BOOKER_END_IDX", 1L, time, PAGE);
+        repository.findByBookerIdAndStartIsAfter(1L, now, getPagination());
+        assertUsesIndex("BOOKINGS_BOOKER_START_IDX", 1L, time, PAGE);
+        repository.findByBookerIdAndStatusIs(1L, BookingStatus.WAITING, getPagination());
+        assertUsesIndex("BOOKINGS_BOOKER_STATUS_IDX", 1L, "WAITING", PAGE);
+        repository.findAll(BookingSpecifications.bookedBy(1L)
+                        .and(BookingSpecifications.before(new BookingCursor(now, 1L))),
+                BookingSpecifications.seekOrder(), 10);
+        assertUsesIndex("BOOKINGS_BOOKER_END_IDX", time, time, PAGE);
+        repository.findCompact(BookingSpecifications.bookedBy(1L), getPagination());
+        assertUsesForeignKeyIndex("BOOKER_ID", PAGE);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void ownerQueriesUseIndexes() {
+        seed();
+        repository.findByOwnerId(1L, getPagination());
+        assertUsesForeignKeyIndexWithoutJoin("OWNER_ID", 1L, PAGE);
+        repository.findByOwnerIdAndStartIsBeforeAndEndIsAfter(1L, now, now, getPagination());
+        assertUsesIndexWithoutJoin("BOOKINGS_OWNER_START_IDX", 1L, time, time, PAGE);
+        repository.findByOwnerIdAndEndIsBefore(1L, now, getPagination());
+        assertUsesIndexWithoutJoin("BOOKINGS_OWNER_END_IDX", 1L, time, PAGE);
+        repository.findByOwnerIdAndStartIsAfter(1L, now, getPagination());
+        assertUsesIndexWithoutJoin("BOOKINGS_OWNER_START_IDX", 1L, time, PAGE);
+        repository.findByOwnerIdAndStatusIs(1L, BookingStatus.WAITING, getPagination());
+        assertUsesIndexWithoutJoin("BOOKINGS_OWNER_STATUS_IDX", 1L, "WAITING", PAGE);
+        repository.findAll(BookingSpecifications.ownedBy(1L)
+                        .and(BookingSpecifications.before(new BookingCursor(now, 1L))),
+                BookingSpecifications.seekOrder(), 10);
+        assertUsesIndexWithoutJoin("BOOKINGS_OWNER_END_IDX", time, time, PAGE);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void itemQueriesUseIndexes() {
+        seed();
+        repository.findFirstByItemIdAndEndIsBefore(1L, now, Sort.by(Sort.Direction.DESC, "end"));
+        assertUsesIndex("BOOKINGS_ITEM_END_IDX", 1L, time, 1);
+        repository.findFirstByItemIdAndStartIsAfter(1L, now, Sort.by(Sort.Direction.ASC, "start"));
+        assertUsesIndex("BOOKINGS_ITEM_START_IDX", 1L, time, 1);
+        repository.existsByItemIdAndBookerIdAndStatusInAndEndIsBefore(1L, 1L, statuses, now);
+        assertUsesIndex("BOOKINGS_ITEM_END_IDX", 1L, 1L, "WAITING", "APPROVED", time, 1);
+        repository.findByItemIdAndStatusInAndEndIsAfter(1L, statuses, now);
+        assertUsesIndex("BOOKINGS_ITEM_END_IDX", 1L, "WAITING", "APPROVED", time);
+        repository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(1L, statuses, now, now);
+        assertUsesIndex("BOOKINGS_ITEM_START_IDX", 1L, "WAITING", "APPROVED", time, time, 1);
+        repository.findLastAndNextByItemIdIn(List.of(1L, 2L), now);
+        assertUsesIndexes(List.of("BOOKINGS_ITEM_END_IDX", "BOOKINGS_ITEM_START_IDX"), 1L, 2L, time, time, time, time);
+    }
+
+    @Test
+    public void pageOfBookingsIsSingleSelect() {
+        persistBookings(40);
+
+        RecordingStatementInspector.clear();
+        List<Booking> bookings = repository.findByOwnerIdAndStartIsAfter(1L, now.minusDays(1),
+                new OffsetPageRequest(0, 40, Sort.by(Sort.Direction.DESC, "end")));
+        assertThat(bookings).hasSize(40);
+        assertThat(bookings).extracting(booking -> booking.getItem().getOwner().getName()).doesNotContainNull();
+        assertThat(bookings).extracting(booking -> booking.getBooker().getName()).doesNotContainNull();
+        assertThat(RecordingStatementInspector.count()).isEqualTo(1);
+
+        RecordingStatementInspector.clear();
+        bookings = repository.findAll(BookingSpecifications.ownedBy(1L), BookingSpecifications.seekOrder(), 40);
+        assertThat(bookings).hasSize(40);
+        assertThat(bookings).extracting(booking -> booking.getItem().getOwner().getName()).doesNotContainNull();
+        assertThat(RecordingStatementInspector.count()).isEqualTo(1);
+    }
+
+    @Test
+    public void lastAndNextBookingsAreSingleSelect() {
+        persistBookings(40);
+
+        RecordingStatementInspector.clear();
+        List<Booking> bookings = repository.findLastAndNextByItemIdIn(List.of(1L, 2L, 3L), now);
+        assertThat(bookings).extracting(booking -> booking.getItem().getId()).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(bookings).extracting(booking -> booking.getBooker().getName()).doesNotContainNull();
+        assertThat(RecordingStatementInspector.count()).isEqualTo(1);
+    }
+
+    private void assertUsesIndex(String index, Object... parameters) {
+        assertUsesIndexes(List.of(index), parameters);
+    }
+
+    private void assertUsesIndexes(List<String> indexes, Object... parameters) {
+        String sql = RecordingStatementInspector.last();
+        String plan = explain(sql, parameters);
+        for (String index : indexes) {
+            assertThat(plan)
+                    .as("Plan of %s", sql)
+                    .contains("/* PUBLIC." + index + ":");
+        }
+    }
+
+    /**
+     * A lookup by the booker or the owner alone: H2 prefers the index it created for the foreign key, whose name
+     * it generates, over the composite one.
+     */
+    private void assertUsesForeignKeyIndex(String column, Object... parameters) {
+        String sql = RecordingStatementInspector.last();
+        String plan = explain(sql, parameters);
+        assertThat(plan)
+                .as("Plan of %s", sql)
+                .containsPattern("/\\* PUBLIC\\.CONSTRAINT_INDEX_\\w+: " + column + " = ");
+    }
+
+    private void assertUsesIndexWithoutJoin(String index, Object... parameters) {
+        assertWithoutJoin();
+        assertUsesIndex(index, parameters);
+    }
+
+    private void assertUsesForeignKeyIndexWithoutJoin(String column, Object... parameters) {
+        assertWithoutJoin();
+        assertUsesForeignKeyIndex(column, parameters);
+    }
+
+    private void assertWithoutJoin() {
+        String sql = RecordingStatementInspector.last().toLowerCase();
+        assertThat(sql.substring(sql.indexOf(" where "))).doesNotContain("item");
+    }
+
+    private void seed() {
+        new DataSeeder(jdbcTemplate, now, 5000).seed();
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void persistBookings(int count) {
+        User owner = entityManager.persist(new User(null, "owner", "owner@mail.ru"));
+        for (int i = 0; i < count; i++) {
+            User booker = entityManager.persist(new User(null, "booker" + i, "booker" + i + "@mail.ru"));
+            ItemRequest request = i % 2 == 0 ? null
+                    : entityManager.persist(new ItemRequest(null, "request" + i, booker.getId(), now));
+            Item item = entityManager.persist(new Item(null, "item" + i, "desc" + i, true, owner, request));
+            entityManager.persist(new Booking(null, now.plusDays(1).plusHours(i), now.plusDays(2).plusHours(i),
+                    item, booker, BookingStatus.WAITING));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private String explain(String sql, Object... parameters) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                assertThat(statement.getParameterMetaData().getParameterCount())
+                        .as("Parameters of %s", sql)
+                        .isEqualTo(parameters.length);
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+
+    private Pageable getPagination() {
+        return new OffsetPageRequest(0, 10, Sort.by(Sort.Direction.DESC, "end"));
+    }
+}
@@ -11,12 +11,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.utils.OffsetPageRequest;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -198,15 +200,27 @@ public class BookingRepositoryTest {
         } catch (InterruptedException ie) {
             Thread.currentThread().interrupt();
         }
-        Booking booking = repository.findByItemIdAndBookerIdAndEndIsBefore(1L, 2L,
-                LocalDateTime.now());
-        assertThat(booking.getId()).isEqualTo(1L);
-        assertThat(booking.getItem().getId()).isEqualTo(1L);
+        assertThat(repository.existsByItemIdAndBookerIdAndStatusInAndEndIsBefore(1L, 2L,
+                List.of(BookingStatus.APPROVED, BookingStatus.WAITING), LocalDateTime.now())).isTrue();
+        assertThat(repository.existsByItemIdAndBookerIdAndStatusInAndEndIsBefore(1L, 2L,
+                List.of(BookingStatus.REJECTED), LocalDateTime.now())).isFalse();
+    }
+
+    @Test
+    public void getBookingForCommentAfterSeveralBookings() {
+        Booking booking = repository.findById(1L).get();
+        for (int i = 0; i < 2; i++) {
+            manager.persist(new Booking(null, getLTD(-20 + i * 5), getLTD(-18 + i * 5), booking.getItem(),
+                    booking.getBooker(), BookingStatus.APPROVED));
+        }
+
+        assertThat(repository.existsByItemIdAndBookerIdAndStatusInAndEndIsBefore(1L, 2L,
+                List.of(BookingStatus.APPROVED), LocalDateTime.now())).isTrue();
     }
 
     @Test
     public void getByOwnerAndStateAll() {
-        List<Booking> bookings = repository.findByItemOwnerId(1L, Pageable.unpaged());
+        List<Booking> bookings = repository.findByOwnerId(1L, Pageable.unpaged());
         assertThat(bookings).hasSize(3);
         assertThat(bookings.get(0).getId()).isEqualTo(1L);
         assertThat(bookings.get(0).getItem().getId()).isEqualTo(1L);
@@ -216,9 +230,51 @@ public class BookingRepositoryTest {
         assertThat(bookings.get(2).getItem().getId()).isEqualTo(3L);
     }
 
+    @Test
+    public void insertAll() {
+        Booking booking = repository.findById(1L).get();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            bookings.add(new Booking(null, getLTD(10 + i), getLTD(11 + i), booking.getItem(), booking.getBooker(),
+                    BookingStatus.WAITING, 1L));
+        }
+
+        repository.insertAll(bookings);
+
+        assertThat(bookings).extracting(Booking::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(bookings.get(59).getId()).isEqualTo(63L);
+        assertThat(repository.findByOwnerId(1L, Pageable.unpaged())).hasSize(63);
+    }
+
+    @Test
+    public void lockWaitingByIdInAndOwnerId() {
+        List<BookingInterval> bookings = repository.lockWaitingByIdInAndOwnerId(List.of(1L, 2L, 3L, 4L), 1L);
+        assertThat(bookings).hasSize(1);
+        assertThat(bookings.get(0).getId()).isEqualTo(1L);
+        assertThat(bookings.get(0).getItemId()).isEqualTo(1L);
+        assertThat(bookings.get(0).getStart()).isEqualTo(repository.findById(1L).get().getStart());
+        assertThat(repository.lockWaitingByIdInAndOwnerId(List.of(1L), 2L)).isEmpty();
+    }
+
+    @Test
+    public void updateStatusByIdIn() {
+        int updated = repository.updateStatusByIdIn(List.of(1L, 3L), BookingStatus.APPROVED);
+        manager.clear();
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(repository.findById(1L).get().getStatus()).isEqualTo(BookingStatus.APPROVED);
+        assertThat(repository.findById(2L).get().getStatus()).isEqualTo(BookingStatus.APPROVED);
+        assertThat(repository.findById(3L).get().getStatus()).isEqualTo(BookingStatus.APPROVED);
+    }
+
+    @Test
+    public void ownerIdIsFilledOnPersist() {
+        assertThat(repository.findAll()).allMatch(booking -> booking.getOwnerId().equals(1L));
+    }
+
     @Test
     public void getByOwnerAndStateAllWithPagination() {
-        List<Booking> bookings = repository.findByItemOwnerId(1L,
+        List<Booking> bookings = repository.findByOwnerId(1L,
                 new OffsetPageRequest(1, 1, Sort.unsorted()));
         assertThat(bookings).hasSize(1);
         assertThat(bookings.get(0).getId()).isEqualTo(2L);
@@ -232,7 +288,7 @@ public class BookingRepositoryTest {
         } catch (InterruptedException ie) {
             Thread.currentThread().interrupt();
         }
-        List<Booking> bookings = repository.findByItemOwnerIdAndStartBeforeAndEndAfter(1L, LocalDateTime.now(),
+        List<Booking> bookings = repository.findByOwnerIdAndStartIsBeforeAndEndIsAfter(1L, LocalDateTime.now(),
                 LocalDateTime.now(), Pageable.unpaged());
         assertThat(bookings).hasSize(2);
         assertThat(bookings.get(0).getId()).isEqualTo(1L);
@@ -248,7 +304,7 @@ public class BookingRepositoryTest {
         } catch (InterruptedException ie) {
             Thread.currentThread().interrupt();
         }
-        List<Booking> bookings = repository.findByItemOwnerIdAndStartBeforeAndEndAfter(1L, LocalDateTime.now(),
+        List<Booking> bookings = repository.findByOwnerIdAndStartIsBeforeAndEndIsAfter(1L, LocalDateTime.now(),
                 LocalDateTime.now(), new OffsetPageRequest(1, 1, Sort.unsorted()));
         assertThat(bookings).hasSize(1);
         assertThat(bookings.get(0).getId()).isEqualTo(2L);
@@ -262,7 +318,7 @@ public class BookingRepositoryTest {
         } catch (InterruptedException ie) {
             Thread.currentThread().interrupt();
         }
-        List<Booking> bookings = repository.findByItemOwnerIdAndEndIsBefore(1L, LocalDateTime.now(),
+        List<Booking> bookings = repository.findByOwnerIdAndEndIsBefore(1L, LocalDateTime.now(),
                 Pageable.unpaged());
         assertThat(bookings).hasSize(1);
         assertThat(bookings.get(0).getId()).isEqualTo(1L);
@@ -276,14 +332,14 @@ public class BookingRepositoryTest {
         } catch (InterruptedException ie) {
             Thread.currentThread().interrupt();
         }
-        List<Booking> bookings = repository.findByItemOwnerIdAndEndIsBefore(1L, LocalDateTime.now(),
+        List<Booking> bookings = repository.findByOwnerIdAndEndIsBefore(1L, LocalDateTime.now(),
                 new OffsetPageRequest(1, 1, Sort.unsorted()));
         assertThat(bookings).hasSize(0);
     }
 
     @Test
     public void getByOwnerAndStateFuture() {
-        List<Booking> bookings = repository.findByItemOwnerIdAndStartIsAfter(1L, LocalDateTime.now(),
+        List<Booking> bookings = repository.findByOwnerIdAndStartIsAfter(1L, LocalDateTime.now(),
                 Pageable.unpaged());
         assertThat(bookings).hasSize(3);
         assertThat(bookings.get(0).getId()).isEqualTo(1L);
@@ -296,7 +352,7 @@ public class BookingRepositoryTest {
 
     @Test
     public void getByOwnerAndStateFutureWithPagination() {
-        List<Booking> bookings = repository.findByItemOwnerIdAndStartIsAfter(1L, LocalDateTime.now(),
+        List<Booking> bookings = repository.findByOwnerIdAndStartIsAfter(1L, LocalDateTime.now(),
                 new OffsetPageRequest(2, 1, Sort.unsorted()));
         assertThat(bookings).hasSize(1);
         assertThat(bookings.get(0).getId()).isEqualTo(3L);
@@ -305,7 +361,7 @@ public class BookingRepositoryTest {
 
     @Test
     public void getByOwnerAndStateWaiting() {
-        List<Booking> bookings = repository.findByItemOwnerIdAndStatusIs(1L, BookingStatus.WAITING,
+        List<Booking> bookings = repository.findByOwnerIdAndStatusIs(1L, BookingStatus.WAITING,
                 Pageable.unpaged());
         assertThat(bookings).hasSize(1);
         assertThat(bookings.get(0).getId()).isEqualTo(1L);
@@ -315,14 +371,14 @@ public class BookingRepositoryTest {
 
     @Test
     public void getByOwnerAndStateWaitingWithPagination() {
-        List<Booking> bookings = repository.findByItemOwnerIdAndStatusIs(1L, BookingStatus.WAITING,
+        List<Booking> bookings = repository.findByOwnerIdAndStatusIs(1L, BookingStatus.WAITING,
                 new OffsetPageRequest(1, 1, Sort.unsorted()));
         assertThat(bookings).hasSize(0);
     }
 
     @Test
     public void getByOwnerAndStateRejected() {
-        List<Booking> bookings = repository.findByItemOwnerIdAndStatusIs(1L, BookingStatus.REJECTED,
+        List<Booking> bookings = repository.findByOwnerIdAndStatusIs(1L, BookingStatus.REJECTED,
                 Pageable.unpaged());
         assertThat(bookings).hasSize(1);
         assertThat(bookings.get(0).getId()).isEqualTo(3L);
@@ -332,7 +388,7 @@ public class BookingRepositoryTest {
 
     @Test
     public void getByOwnerAndStateRejectedWithPagination() {
-        List<Booking> bookings = repository.findByItemOwnerIdAndStatusIs(1L, BookingStatus.REJECTED,
+        List<Booking> bookings = repository.findByOwnerIdAndStatusIs(1L, BookingStatus.REJECTED,
                 new OffsetPageRequest(0, 1, Sort.unsorted()));
         assertThat(bookings).hasSize(1);
         assertThat(bookings.get(0).getId()).isEqualTo(3L);
@@ -358,6 +414,89 @@ public class BookingRepositoryTest {
         assertThat(booking.getItem().getId()).isEqualTo(2L);
     }
 
+    @Test
+    public void getByUserWithCursor() {
+        List<Booking> firstPage = repository.findAll(BookingSpecifications.bookedBy(2L),
+                BookingSpecifications.seekOrder(), 2);
+        assertThat(firstPage).extracting(Booking::getId).containsExactly(3L, 2L);
+
+        Booking last = firstPage.get(1);
+        List<Booking> secondPage = repository.findAll(BookingSpecifications.bookedBy(2L)
+                        .and(BookingSpecifications.before(new BookingCursor(last.getEnd(), last.getId()))),
+                BookingSpecifications.seekOrder(), 2);
+        assertThat(secondPage).extracting(Booking::getId).containsExactly(1L);
+    }
+
+    @Test
+    public void getByOwnerAndStateWithCursor() {
+        List<Booking> bookings = repository.findAll(BookingSpecifications.ownedBy(1L)
+                        .and(BookingSpecifications.inState(BookingState.WAITING, LocalDateTime.now())),
+                BookingSpecifications.seekOrder(), 10);
+        assertThat(bookings).extracting(Booking::getId).containsExactly(1L);
+
+        bookings = repository.findAll(BookingSpecifications.ownedBy(1L)
+                        .and(BookingSpecifications.inState(BookingState.FUTURE, LocalDateTime.now()))
+                        .and(BookingSpecifications.before(new BookingCursor(
+                                repository.findById(2L).get().getEnd(), 2L))),
+                BookingSpecifications.seekOrder(), 10);
+        assertThat(bookings).extracting(Booking::getId).containsExactly(1L);
+    }
+
+    @Test
+    public void getCompact() {
+        List<BookingShortDto> bookings = repository.findCompact(BookingSpecifications.ownedBy(1L),
+                new OffsetPageRequest(1, 2, BookingSpecifications.seekOrder()));
+        assertThat(bookings).extracting(BookingShortDto::getId).containsExactly(2L, 1L);
+        assertThat(bookings.get(0).getItemId()).isEqualTo(2L);
+        assertThat(bookings.get(0).getItemName()).isEqualTo("item2");
+        assertThat(bookings.get(0).getBookerId()).isEqualTo(2L);
+        assertThat(bookings.get(0).getBookerName()).isEqualTo("booker");
+        assertThat(bookings.get(0).getStatus()).isEqualTo(BookingStatus.APPROVED);
+
+        bookings = repository.findCompact(BookingSpecifications.bookedBy(2L)
+                        .and(BookingSpecifications.inState(BookingState.REJECTED, LocalDateTime.now())),
+                new OffsetPageRequest(0, 10, BookingSpecifications.seekOrder()));
+        assertThat(bookings).extracting(BookingShortDto::getId).containsExactly(3L);
+    }
+
+    @Test
+    public void getActiveByItem() {
+        List<Booking> bookings = repository.findByItemIdAndStatusInAndEndIsAfter(3L,
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), LocalDateTime.now());
+        assertThat(bookings).hasSize(0);
+
+        bookings = repository.findByItemIdAndStatusInAndEndIsAfter(2L,
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), LocalDateTime.now());
+        assertThat(bookings).hasSize(1);
+        assertThat(bookings.get(0).getId()).isEqualTo(2L);
+    }
+
+    @Test
+    public void existsOverlapping() {
+        List<BookingStatus> statuses = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+        assertThat(repository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(2L, statuses,
+                getLTD(5), getLTD(3))).isTrue();
+        assertThat(repository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(2L, statuses,
+                getLTD(6), getLTD(4))).isFalse();
+        assertThat(repository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(3L, statuses,
+                getLTD(6), getLTD(1))).isFalse();
+    }
+
+    @Test
+    public void getLastAndNextBookingsWhenAllInFuture() {
+        List<Booking> bookings = repository.findLastAndNextByItemIdIn(List.of(1L, 2L, 3L), LocalDateTime.now());
+        assertThat(bookings).hasSize(3);
+        assertThat(bookings).extracting(Booking::getId).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    public void getLastAndNextBookingsWhenAllInPast() {
+        List<Booking> bookings = repository.findLastAndNextByItemIdIn(List.of(1L, 2L), getLTD(10));
+        assertThat(bookings).hasSize(2);
+        assertThat(bookings).extracting(Booking::getId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(bookings).extracting(booking -> booking.getItem().getId()).containsExactlyInAnyOrder(1L, 2L);
+    }
+
     private LocalDateTime getLTD(int sec) {
         return LocalDateTime.now().plusSeconds(sec).truncatedTo(ChronoUnit.SECONDS);
     }
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * schema.sql over a database created before bookings.owner_id: the column is added and backfilled, and running
+ * the script again changes nothing.
+ */
+public class BookingSchemaMigrationTest {
+
+    private final EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+
+    @AfterEach
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void backfillOwnerOfExistingBookings() {
+        jdbcTemplate.execute("CREATE TABLE users (user_id INTEGER NOT NULL GENERATED BY DEFAULT AS IDENTITY, " +
+                "name varchar, email varchar UNIQUE, CONSTRAINT user_id_pk PRIMARY KEY (user_id))");
+        jdbcTemplate.execute("CREATE TABLE items (item_id INTEGER NOT NULL GENERATED BY DEFAULT AS IDENTITY, " +
+                "name varchar, description varchar, is_available BOOLEAN, owner_id INTEGER NOT NULL, " +
+                "request_id INTEGER, CONSTRAINT item_id_pk PRIMARY KEY (item_id))");
+        jdbcTemplate.execute("CREATE TABLE bookings (booking_id INTEGER NOT NULL GENERATED BY DEFAULT AS IDENTITY, " +
+                "start_date TIMESTAMP WITHOUT TIME ZONE, end_date TIMESTAMP WITHOUT TIME ZONE, " +
+                "item_id INTEGER NOT NULL, booker_id INTEGER NOT NULL, status varchar, " +
+                "CONSTRAINT booking_id_pk PRIMARY KEY (booking_id))");
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('owner', 'owner@mail.ru'), " +
+                "('owner2', 'owner2@mail.ru'), ('booker', 'booker@mail.ru')");
+        jdbcTemplate.update("INSERT INTO items (name, owner_id) VALUES ('drill', 1), ('saw', 2)");
+        jdbcTemplate.update("INSERT INTO bookings (item_id, booker_id, status) VALUES (1, 3, 'WAITING'), " +
+                "(2, 3, 'APPROVED')");
+
+        applySchema();
+        applySchema();
+
+        assertThat(jdbcTemplate.queryForList("SELECT owner_id FROM bookings ORDER BY booking_id", Long.class))
+                .isEqualTo(List.of(1L, 2L));
+        assertThat(jdbcTemplate.queryForObject("SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS " +
+                "WHERE TABLE_NAME = 'BOOKINGS' AND COLUMN_NAME = 'OWNER_ID'", String.class)).isEqualTo("NO");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES " +
+                "WHERE INDEX_NAME = 'BOOKINGS_OWNER_END_IDX'", Long.class)).isEqualTo(1L);
+    }
+
+    private void applySchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(database);
+    }
+}
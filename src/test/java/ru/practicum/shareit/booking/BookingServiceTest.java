@@ -5,7 +5,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingApproveResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.Item;
@@ -20,10 +25,16 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.UnaryOperator;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +58,15 @@ public class BookingServiceTest {
     @Mock
     private BookingRepository repository;
 
+    @Mock
+    private BookingIntervalIndex intervalIndex;
+
+    @Mock
+    private BookingEventHub eventHub;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Test
     public void addBooking() {
         Item item = new Item(1L, "item", "desc", true, new User(), null);
@@ -60,11 +80,91 @@ public class BookingServiceTest {
         when(itemService.getItemById(any())).thenReturn(item);
         when(userService.getUserById(any())).thenReturn(new UserDto());
         when(userMapper.fromDto(any())).thenReturn(booker);
+        when(intervalIndex.saveIfFree(any(), any())).thenAnswer(invocation ->
+                Optional.of(invocation.<UnaryOperator<Booking>>getArgument(1).apply(invocation.getArgument(0))));
         when(repository.save(any())).thenReturn(booking);
         when(bookingMapper.toDto(booking)).thenReturn(bookingDto);
 
         BookingDto savedBooking = bookingService.add(2L, bookingDto);
         assertThat(savedBooking).usingRecursiveComparison().isEqualTo(bookingDto);
+        assertThat(booking.getOwnerId()).isEqualTo(1L);
+        verify(eventPublisher).publishEvent(argThat((BookingChangedEvent event) -> event.getOwnerId().equals(1L)
+                && event.getBooking().getBookerId().equals(2L)));
+    }
+
+    @Test
+    public void addBookingWithOverlap() {
+        Item item = new Item(1L, "item", "desc", true, new User(), null);
+        item.getOwner().setId(1L);
+        BookingDto bookingDto = new BookingDto(1L, getLTD(2), getLTD(3),
+                null, 1L, null, null, null);
+        Booking booking = new Booking(1L, bookingDto.getStart(), bookingDto.getEnd(),
+                null, null, BookingStatus.WAITING);
+        when(bookingMapper.fromDto(bookingDto)).thenReturn(booking);
+        when(itemService.getItemById(any())).thenReturn(item);
+        when(userService.getUserById(any())).thenReturn(new UserDto());
+        when(userMapper.fromDto(any())).thenReturn(new User(2L, "user", "desc"));
+        when(intervalIndex.saveIfFree(any(), any())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() ->
+                bookingService.add(2L, bookingDto))
+                .isInstanceOf(ValidationException.class);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    public void addBookings() {
+        Item item = new Item(1L, "item", "desc", true, new User(1L, "owner", "mail"), null);
+        Item unavailable = new Item(2L, "item2", "desc2", false, new User(1L, "owner", "mail"), null);
+        Item own = new Item(3L, "item3", "desc3", true, new User(2L, "user", "desc"), null);
+        User booker = new User(2L, "user", "desc");
+        List<BookingDto> bookingDtos = List.of(
+                new BookingDto(null, getLTD(2), getLTD(3), null, 1L, null, null, null),
+                new BookingDto(null, getLTD(3), getLTD(2), null, 1L, null, null, null),
+                new BookingDto(null, getLTD(2), getLTD(3), null, 2L, null, null, null),
+                new BookingDto(null, getLTD(2), getLTD(3), null, 3L, null, null, null),
+                new BookingDto(null, getLTD(2), getLTD(3), null, 4L, null, null, null));
+        BookingDto savedDto = new BookingDto(1L, getLTD(2), getLTD(3), item, 1L, booker, 2L, BookingStatus.WAITING);
+        when(userService.getUserById(2L)).thenReturn(new UserDto());
+        when(userMapper.fromDto(any())).thenReturn(booker);
+        when(itemService.getItemsByIds(any())).thenReturn(List.of(item, unavailable, own));
+        when(bookingMapper.fromDto(any())).thenAnswer(invocation -> new Booking(null,
+                invocation.<BookingDto>getArgument(0).getStart(), invocation.<BookingDto>getArgument(0).getEnd(),
+                null, null, BookingStatus.WAITING));
+        when(intervalIndex.saveAllIfFree(anyList(), any())).thenAnswer(invocation ->
+                invocation.<List<Booking>>getArgument(0));
+        when(bookingMapper.toDto(any(Booking.class))).thenReturn(savedDto);
+
+        List<BookingBatchResultDto> results = bookingService.addAll(2L, bookingDtos);
+
+        assertThat(results).extracting(BookingBatchResultDto::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(results.get(0).getBooking()).isEqualTo(savedDto);
+        assertThat(results.get(0).getError()).isNull();
+        assertThat(results.get(1).getError()).contains("Дата конца аренды");
+        assertThat(results.get(2).getError()).contains("не доступен");
+        assertThat(results.get(3).getError()).contains("Владелец");
+        assertThat(results.get(4).getError()).contains("не найден");
+        verify(intervalIndex).saveAllIfFree(argThat(bookings -> bookings.size() == 1
+                && bookings.get(0).getOwnerId().equals(1L)), any());
+    }
+
+    @Test
+    public void addBookingsWithOverlap() {
+        Item item = new Item(1L, "item", "desc", true, new User(1L, "owner", "mail"), null);
+        List<BookingDto> bookingDtos = List.of(
+                new BookingDto(null, getLTD(2), getLTD(3), null, 1L, null, null, null));
+        when(userService.getUserById(2L)).thenReturn(new UserDto());
+        when(userMapper.fromDto(any())).thenReturn(new User(2L, "user", "desc"));
+        when(itemService.getItemsByIds(any())).thenReturn(List.of(item));
+        when(bookingMapper.fromDto(any())).thenReturn(new Booking(null, getLTD(2), getLTD(3),
+                null, null, BookingStatus.WAITING));
+        when(intervalIndex.saveAllIfFree(anyList(), any())).thenReturn(List.of());
+
+        List<BookingBatchResultDto> results = bookingService.addAll(2L, bookingDtos);
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getBooking()).isNull();
+        assertThat(results.get(0).getError()).contains("уже забронирован");
     }
 
     @Test
@@ -133,11 +233,12 @@ public class BookingServiceTest {
         BookingDto bookingDto = new BookingDto(1L, getLTD(2), getLTD(3),
                 item, item.getId(), booker, booker.getId(), BookingStatus.APPROVED);
         when(repository.findById(any())).thenReturn(Optional.of(booking));
-        when(repository.save(any())).thenReturn(booking);
+        when(repository.compareAndSetStatus(1L, 1L, BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(1);
         when(bookingMapper.toDto(booking)).thenReturn(bookingDto);
 
         BookingDto savedBooking = bookingService.makeApprove(1L, 1L, true);
         assertThat(savedBooking).usingRecursiveComparison().isEqualTo(bookingDto);
+        verify(repository, never()).save(any());
     }
 
     @Test
@@ -150,15 +251,92 @@ public class BookingServiceTest {
         BookingDto bookingDto = new BookingDto(1L, getLTD(2), getLTD(3),
                 item, item.getId(), booker, booker.getId(), BookingStatus.REJECTED);
         when(repository.findById(any())).thenReturn(Optional.of(booking));
-        when(repository.save(any())).thenReturn(booking);
+        when(repository.compareAndSetStatus(1L, 1L, BookingStatus.WAITING, BookingStatus.REJECTED)).thenReturn(1);
         when(bookingMapper.toDto(booking)).thenReturn(bookingDto);
 
         BookingDto savedBooking = bookingService.makeApprove(1L, 1L, false);
         assertThat(savedBooking).usingRecursiveComparison().isEqualTo(bookingDto);
+        verify(intervalIndex).removeAfterCommit(booking);
+    }
+
+    @Test
+    public void subscribe() {
+        SseEmitter emitter = new SseEmitter();
+        when(userService.existsById(1L)).thenReturn(true);
+        when(eventHub.subscribe(1L)).thenReturn(emitter);
+
+        assertThat(bookingService.subscribe(1L)).isSameAs(emitter);
+    }
+
+    @Test
+    public void subscribeByWrongUser() {
+        when(userService.existsById(1L)).thenReturn(false);
+
+        assertThatThrownBy(() ->
+                bookingService.subscribe(1L))
+                .isInstanceOf(ObjectNotFoundException.class);
+        verifyNoInteractions(eventHub);
+    }
+
+    @Test
+    public void makeApproveAll() {
+        BookingInterval waiting = mock(BookingInterval.class);
+        when(waiting.getId()).thenReturn(1L);
+        when(userService.existsById(1L)).thenReturn(true);
+        when(repository.lockWaitingByIdInAndOwnerId(Set.of(1L, 2L), 1L)).thenReturn(List.of(waiting));
+
+        BookingApproveResultDto result = bookingService.makeApproveAll(1L, List.of(1L, 2L, 1L), true);
+
+        assertThat(result.getUpdated()).containsExactly(1L);
+        assertThat(result.getSkipped()).containsExactly(2L);
+        verify(repository).updateStatusByIdIn(List.of(1L), BookingStatus.APPROVED);
+        verifyNoInteractions(intervalIndex);
+    }
+
+    @Test
+    public void makeRejectAll() {
+        LocalDateTime start = getLTD(2);
+        BookingInterval waiting = mock(BookingInterval.class);
+        when(waiting.getId()).thenReturn(1L);
+        when(waiting.getItemId()).thenReturn(3L);
+        when(waiting.getStart()).thenReturn(start);
+        when(userService.existsById(1L)).thenReturn(true);
+        when(repository.lockWaitingByIdInAndOwnerId(any(), any())).thenReturn(List.of(waiting));
+
+        BookingApproveResultDto result = bookingService.makeApproveAll(1L, List.of(1L), false);
+
+        assertThat(result.getUpdated()).containsExactly(1L);
+        assertThat(result.getSkipped()).isEmpty();
+        verify(repository).updateStatusByIdIn(List.of(1L), BookingStatus.REJECTED);
+        verify(intervalIndex).removeAfterCommit(3L, 1L, start);
+        verify(eventPublisher).publishEvent(argThat((BookingChangedEvent event) -> event.getOwnerId().equals(1L)
+                && event.getBooking().getStatus() == BookingStatus.REJECTED));
+    }
+
+    @Test
+    public void makeApproveAllWithoutWaiting() {
+        when(userService.existsById(1L)).thenReturn(true);
+        when(repository.lockWaitingByIdInAndOwnerId(any(), any())).thenReturn(List.of());
+
+        BookingApproveResultDto result = bookingService.makeApproveAll(1L, List.of(1L, 2L), true);
+
+        assertThat(result.getUpdated()).isEmpty();
+        assertThat(result.getSkipped()).containsExactly(1L, 2L);
+        verify(repository, never()).updateStatusByIdIn(any(), any());
+    }
+
+    @Test
+    public void makeApproveAllByWrongOwner() {
+        when(userService.existsById(1L)).thenReturn(false);
+
+        assertThatThrownBy(() ->
+                bookingService.makeApproveAll(1L, List.of(1L), true))
+                .isInstanceOf(ObjectNotFoundException.class);
     }
 
     @Test
     public void makeApproveWithoutBooking() {
+        when(repository.compareAndSetStatus(any(), any(), any(), any())).thenReturn(0);
         when(repository.findById(any())).thenReturn(Optional.empty());
 
         assertThatThrownBy(() ->
@@ -172,6 +350,7 @@ public class BookingServiceTest {
         item.getOwner().setId(1L);
         Booking booking = new Booking(1L, getLTD(2), getLTD(3),
                 item, new User(), BookingStatus.WAITING);
+        when(repository.compareAndSetStatus(any(), any(), any(), any())).thenReturn(0);
         when(repository.findById(any())).thenReturn(Optional.of(booking));
 
         assertThatThrownBy(() ->
@@ -185,6 +364,7 @@ public class BookingServiceTest {
         item.getOwner().setId(1L);
         Booking booking = new Booking(1L, getLTD(2), getLTD(3),
                 item, new User(), BookingStatus.APPROVED);
+        when(repository.compareAndSetStatus(any(), any(), any(), any())).thenReturn(0);
         when(repository.findById(any())).thenReturn(Optional.of(booking));
 
         assertThatThrownBy(() ->
@@ -242,7 +422,7 @@ public class BookingServiceTest {
     public void getByUserAndStateAll() {
         BookingDto bookingDto = new BookingDto(1L, getLTD(2), getLTD(3),
                 new Item(), 1L, new User(), 1L, BookingStatus.WAITING);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
+        when(userService.existsById(any())).thenReturn(true);
         when(repository.findByBookerId(any(), any())).thenReturn(List.of());
         when(bookingMapper.toDto(anyList())).thenReturn(List.of(bookingDto));
 
@@ -255,7 +435,7 @@ public class BookingServiceTest {
     public void getByUserAndStateCurrent() {
         BookingDto bookingDto = new BookingDto(1L, getLTD(2), getLTD(3),
                 new Item(), 1L, new User(), 1L, BookingStatus.WAITING);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
+        when(userService.existsById(any())).thenReturn(true);
         when(repository.findByBookerIdAndStartIsBeforeAndEndIsAfter(any(), any(), any(), any())).thenReturn(List.of());
         when(bookingMapper.toDto(anyList())).thenReturn(List.of(bookingDto));
 
@@ -268,7 +448,7 @@ public class BookingServiceTest {
     public void getByUserAndStatePast() {
         BookingDto bookingDto = new BookingDto(1L, getLTD(2), getLTD(3),
                 new Item(), 1L, new User(), 1L, BookingStatus.WAITING);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
+        when(userService.existsById(any())).thenReturn(true);
         when(repository.findByBookerIdAndEndIsBefore(any(), any(), any())).thenReturn(List.of());
         when(bookingMapper.toDto(anyList())).thenReturn(List.of(bookingDto));
 
@@ -281,7 +461,7 @@ public class BookingServiceTest {
     public void getByUserAndStateFuture() {
         BookingDto bookingDto = new BookingDto(1L, getLTD(2), getLTD(3),
                 new Item(), 1L, new User(), 1L, BookingStatus.WAITING);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
+        when(userService.existsById(any())).thenReturn(true);
         when(repository.findByBookerIdAndStartIsAfter(any(), any(), any())).thenReturn(List.of());
         when(bookingMapper.toDto(anyList())).thenReturn(List.of(bookingDto));
 
@@ -294,7 +474,7 @@ public class BookingServiceTest {
     public void getByUserAndStateWaiting() {
         BookingDto bookingDto = new BookingDto(1L, getLTD(2), getLTD(3),
                 new Item(), 1L, new User(), 1L, BookingStatus.WAITING);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
+        when(userService.existsById(any())).thenReturn(true);
         when(repository.findByBookerIdAndStatusIs(any(), any(), any())).thenReturn(List.of());
         when(bookingMapper.toDto(anyList())).thenReturn(List.of(bookingDto));
 
@@ -307,7 +487,7 @@ public class BookingServiceTest {
     public void getByUserAndStateRejected() {
         BookingDto bookingDto = new BookingDto(1L, getLTD(2), getLTD(3),
                 new Item(), 1L, new User(), 1L, BookingStatus.WAITING);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
+        when(userService.existsById(any())).thenReturn(true);
         when(repository.findByBookerIdAndStatusIs(any(), any(), any())).thenReturn(List.of());
         when(bookingMapper.toDto(anyList())).thenReturn(List.of(bookingDto));
 
@@ -318,7 +498,7 @@ public class BookingServiceTest {
 
     @Test
     public void getByWrongUserAndStateAll() {
-        when(userService.getUserById(any())).thenThrow(ObjectNotFoundException.class);
+        when(userService.existsById(any())).thenReturn(false);
 
         assertThatThrownBy(() ->
                 bookingService.getByUserAndState(1L, "ALL", 0, 1))
@@ -336,9 +516,9 @@ public class BookingServiceTest {
     public void getByOwnerAndStateAll() {
         BookingDto bookingDto = new BookingDto(1L, getLTD(2), getLTD(3),
                 new Item(), 1L, new User(), 1L, BookingStatus.WAITING);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
-        when(itemService.getItemsByOwner(any(), any(), any())).thenReturn(List.of(new ItemWithBookingDto()));
-        when(repository.findByItemOwnerId(any(), any())).thenReturn(List.of());
+        when(userService.existsById(any())).thenReturn(true);
+        when(itemService.existsByOwnerId(any())).thenReturn(true);
+        when(repository.findByOwnerId(any(), any())).thenReturn(List.of());
         when(bookingMapper.toDto(anyList())).thenReturn(List.of(bookingDto));
 
         List<BookingDto> bookings = bookingService.getByOwnerAndState(1L, "ALL", 0, 1);
@@ -350,9 +530,9 @@ public class BookingServiceTest {
     public void getByOwnerAndStateCurrent() {
         BookingDto bookingDto = new BookingDto(1L, getLTD(2), getLTD(3),
                 new Item(), 1L, new User(), 1L, BookingStatus.WAITING);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
-        when(itemService.getItemsByOwner(any(), any(), any())).thenReturn(List.of(new ItemWithBookingDto()));
-        when(repository.findByItemOwnerIdAndStartBeforeAndEndAfter(any(), any(), any(), any())).thenReturn(List.of());
+        when(userService.existsById(any())).thenReturn(true);
+        when(itemService.existsByOwnerId(any())).thenReturn(true);
+        when(repository.findByOwnerIdAndStartIsBeforeAndEndIsAfter(any(), any(), any(), any())).thenReturn(List.of());
         when(bookingMapper.toDto(anyList())).thenReturn(List.of(bookingDto));
 
         List<BookingDto> bookings = bookingService.getByOwnerAndState(1L, "CURRENT", 0, 1);
@@ -364,9 +544,9 @@ public class BookingServiceTest {
     public void getByOwnerAndStatePast() {
         BookingDto bookingDto = new BookingDto(1L, getLTD(2), getLTD(3),
                 new Item(), 1L, new User(), 1L, BookingStatus.WAITING);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
-        when(itemService.getItemsByOwner(any(), any(), any())).thenReturn(List.of(new ItemWithBookingDto()));
-        when(repository.findByItemOwnerIdAndEndIsBefore(any(), any(), any())).thenReturn(List.of());
+        when(userService.existsById(any())).thenReturn(true);
+        when(itemService.existsByOwnerId(any())).thenReturn(true);
+        when(repository.findByOwnerIdAndEndIsBefore(any(), any(), any())).thenReturn(List.of());
         when(bookingMapper.toDto(anyList())).thenReturn(List.of(bookingDto));
 
         List<BookingDto> bookings = bookingService.getByOwnerAndState(1L, "PAST", 0, 1);
@@ -378,9 +558,9 @@ public class BookingServiceTest {
     public void getByOwnerAndStateFuture() {
         BookingDto bookingDto = new BookingDto(1L, getLTD(2), getLTD(3),
                 new Item(), 1L, new User(), 1L, BookingStatus.WAITING);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
-        when(itemService.getItemsByOwner(any(), any(), any())).thenReturn(List.of(new ItemWithBookingDto()));
-        when(repository.findByItemOwnerIdAndStartIsAfter(any(), any(), any())).thenReturn(List.of());
+        when(userService.existsById(any())).thenReturn(true);
+        when(itemService.existsByOwnerId(any())).thenReturn(true);
+        when(repository.findByOwnerIdAndStartIsAfter(any(), any(), any())).thenReturn(List.of());
         when(bookingMapper.toDto(anyList())).thenReturn(List.of(bookingDto));
 
         List<BookingDto> bookings = bookingService.getByOwnerAndState(1L, "FUTURE", 0, 1);
@@ -392,9 +572,9 @@ public class BookingServiceTest {
     public void getByOwnerAndStateWaiting() {
         BookingDto bookingDto = new BookingDto(1L, getLTD(2), getLTD(3),
                 new Item(), 1L, new User(), 1L, BookingStatus.WAITING);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
-        when(itemService.getItemsByOwner(any(), any(), any())).thenReturn(List.of(new ItemWithBookingDto()));
-        when(repository.findByItemOwnerIdAndStatusIs(any(), any(), any())).thenReturn(List.of());
+        when(userService.existsById(any())).thenReturn(true);
+        when(itemService.existsByOwnerId(any())).thenReturn(true);
+        when(repository.findByOwnerIdAndStatusIs(any(), any(), any())).thenReturn(List.of());
         when(bookingMapper.toDto(anyList())).thenReturn(List.of(bookingDto));
 
         List<BookingDto> bookings = bookingService.getByOwnerAndState(1L, "WAITING", 0, 1);
@@ -406,9 +586,9 @@ public class BookingServiceTest {
     public void getByOwnerAndStateRejected() {
         BookingDto bookingDto = new BookingDto(1L, getLTD(2), getLTD(3),
                 new Item(), 1L, new User(), 1L, BookingStatus.WAITING);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
-        when(itemService.getItemsByOwner(any(), any(), any())).thenReturn(List.of(new ItemWithBookingDto()));
-        when(repository.findByItemOwnerIdAndStatusIs(any(), any(), any())).thenReturn(List.of());
+        when(userService.existsById(any())).thenReturn(true);
+        when(itemService.existsByOwnerId(any())).thenReturn(true);
+        when(repository.findByOwnerIdAndStatusIs(any(), any(), any())).thenReturn(List.of());
         when(bookingMapper.toDto(anyList())).thenReturn(List.of(bookingDto));
 
         List<BookingDto> bookings = bookingService.getByOwnerAndState(1L, "REJECTED", 0, 1);
@@ -418,8 +598,7 @@ public class BookingServiceTest {
 
     @Test
     public void getByWrongOwnerAndStateAll() {
-        when(itemService.getItemsByOwner(any(), any(), any())).thenReturn(List.of(new ItemWithBookingDto()));
-        when(userService.getUserById(any())).thenThrow(ObjectNotFoundException.class);
+        when(userService.existsById(any())).thenReturn(false);
 
         assertThatThrownBy(() ->
                 bookingService.getByOwnerAndState(1L, "ALL", 0, 1))
@@ -435,13 +614,77 @@ public class BookingServiceTest {
 
     @Test
     public void getByOwnerAndStateWithOwnerWithoutItems() {
-        when(userService.getUserById(any())).thenReturn(new UserDto());
-        when(itemService.getItemsByOwner(any(), any(), any())).thenReturn(List.of());
+        when(userService.existsById(any())).thenReturn(true);
+        when(itemService.existsByOwnerId(any())).thenReturn(false);
 
         List<BookingDto> bookings = bookingService.getByOwnerAndState(1L, "ALL", 0, 1);
         assertThat(bookings).hasSize(0);
     }
 
+    @Test
+    public void getByUserAndStateAfterCursor() {
+        BookingDto bookingDto = new BookingDto(1L, getLTD(2), getLTD(3),
+                new Item(), 1L, new User(), 1L, BookingStatus.WAITING);
+        when(userService.existsById(any())).thenReturn(true);
+        when(repository.findAll(any(), any(), anyInt())).thenReturn(List.of());
+        when(bookingMapper.toDto(anyList())).thenReturn(List.of(bookingDto));
+
+        List<BookingDto> bookings = bookingService.getByUserAndStateAfter(1L, "PAST",
+                new BookingCursor(getLTD(10), 5L).encode(), 1);
+        assertThat(bookings).hasSize(1);
+        verify(repository).findAll(any(), eq(BookingSpecifications.seekOrder()), eq(1));
+    }
+
+    @Test
+    public void getByOwnerAndStateAfterCursor() {
+        when(userService.existsById(any())).thenReturn(true);
+        when(repository.findAll(any(), any(), anyInt())).thenReturn(List.of());
+        when(bookingMapper.toDto(anyList())).thenReturn(List.of());
+
+        List<BookingDto> bookings = bookingService.getByOwnerAndStateAfter(1L, "ALL", "", 10);
+        assertThat(bookings).hasSize(0);
+    }
+
+    @Test
+    public void getCompactByUserAndState() {
+        BookingShortDto bookingDto = new BookingShortDto(1L, getLTD(2), getLTD(3), BookingStatus.WAITING,
+                1L, "item", 2L, "booker");
+        when(userService.existsById(2L)).thenReturn(true);
+        when(repository.findCompact(any(), any())).thenReturn(List.of(bookingDto));
+
+        List<BookingShortDto> bookings = bookingService.getCompactByUserAndState(2L, "ALL", 5, 10, null);
+        assertThat(bookings).containsExactly(bookingDto);
+        verify(repository).findCompact(any(), argThat(pageable -> pageable.getOffset() == 5
+                && pageable.getPageSize() == 10));
+        verifyNoInteractions(bookingMapper);
+    }
+
+    @Test
+    public void getCompactByOwnerAndStateAfterCursor() {
+        when(userService.existsById(1L)).thenReturn(true);
+        when(repository.findCompact(any(), any())).thenReturn(List.of());
+
+        List<BookingShortDto> bookings = bookingService.getCompactByOwnerAndState(1L, "FUTURE", 5, 10,
+                new BookingCursor(getLTD(10), 5L).encode());
+        assertThat(bookings).isEmpty();
+        verify(repository).findCompact(any(), argThat(pageable -> pageable.getOffset() == 0
+                && pageable.getSort().equals(BookingSpecifications.seekOrder())));
+    }
+
+    @Test
+    public void getCompactByOwnerWithWrongState() {
+        assertThatThrownBy(() ->
+                bookingService.getCompactByOwnerAndState(1L, "UNKNOWN", 0, 10, null))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    public void getByUserAndStateAfterWrongCursor() {
+        assertThatThrownBy(() ->
+                bookingService.getByUserAndStateAfter(1L, "ALL", "not a cursor", 10))
+                .isInstanceOf(ValidationException.class);
+    }
+
     @Test
     public void getLastBooking() {
         BookingDto bookingDto = new BookingDto();
@@ -480,6 +723,59 @@ public class BookingServiceTest {
         assertThat(foundBooking).isNull();
     }
 
+    @Test
+    public void setLastAndNextBookings() {
+        Item item = new Item(1L, "item", "desc", true, new User(), null);
+        Booking lastBooking = new Booking(1L, getLTD(-3), getLTD(-2), item, new User(), BookingStatus.APPROVED);
+        Booking nextBooking = new Booking(2L, getLTD(2), getLTD(3), item, new User(), BookingStatus.WAITING);
+        BookingDto lastBookingDto = new BookingDto();
+        BookingDto nextBookingDto = new BookingDto();
+        ItemWithBookingDto itemDto = new ItemWithBookingDto(1L, "item", "desc", true,
+                null, null, List.of(), null);
+        ItemWithBookingDto itemDto2 = new ItemWithBookingDto(2L, "item2", "desc2", true,
+                null, null, List.of(), null);
+        when(repository.findLastAndNextByItemIdIn(anyList(), any())).thenReturn(List.of(lastBooking, nextBooking));
+        when(bookingMapper.toDto(lastBooking)).thenReturn(lastBookingDto);
+        when(bookingMapper.toDto(nextBooking)).thenReturn(nextBookingDto);
+
+        bookingService.setLastAndNextBookings(List.of(itemDto, itemDto2));
+        assertThat(itemDto.getLastBooking()).isSameAs(lastBookingDto);
+        assertThat(itemDto.getNextBooking()).isSameAs(nextBookingDto);
+        assertThat(itemDto2.getLastBooking()).isNull();
+        assertThat(itemDto2.getNextBooking()).isNull();
+    }
+
+    @Test
+    public void setLastAndNextBookingsOnTiedBoundary() {
+        Item item = new Item(1L, "item", "desc", true, new User(), null);
+        Booking lastBooking = new Booking(1L, getLTD(-4), getLTD(-2), item, new User(), BookingStatus.APPROVED);
+        Booking tiedLastBooking = new Booking(3L, getLTD(-3), getLTD(-2), item, new User(), BookingStatus.APPROVED);
+        Booking nextBooking = new Booking(2L, getLTD(2), getLTD(3), item, new User(), BookingStatus.WAITING);
+        Booking tiedNextBooking = new Booking(4L, getLTD(2), getLTD(4), item, new User(), BookingStatus.WAITING);
+        BookingDto lastBookingDto = new BookingDto();
+        BookingDto nextBookingDto = new BookingDto();
+        when(bookingMapper.toDto(tiedLastBooking)).thenReturn(lastBookingDto);
+        when(bookingMapper.toDto(nextBooking)).thenReturn(nextBookingDto);
+
+        for (List<Booking> found : List.of(List.of(lastBooking, tiedLastBooking, nextBooking, tiedNextBooking),
+                List.of(tiedNextBooking, nextBooking, tiedLastBooking, lastBooking))) {
+            ItemWithBookingDto itemDto = new ItemWithBookingDto(1L, "item", "desc", true,
+                    null, null, List.of(), null);
+            when(repository.findLastAndNextByItemIdIn(anyList(), any())).thenReturn(found);
+
+            bookingService.setLastAndNextBookings(List.of(itemDto));
+            assertThat(itemDto.getLastBooking()).isSameAs(lastBookingDto);
+            assertThat(itemDto.getNextBooking()).isSameAs(nextBookingDto);
+        }
+    }
+
+    @Test
+    public void setLastAndNextBookingsWithoutItems() {
+        bookingService.setLastAndNextBookings(List.of());
+
+        verifyNoInteractions(repository);
+    }
+
     private LocalDateTime getLTD(int sec) {
         return LocalDateTime.now().plusSeconds(sec).truncatedTo(ChronoUnit.SECONDS);
     }
@@ -7,11 +7,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.utils.RecordingStatementInspector;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -21,7 +23,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
 
 @ExtendWith(SpringExtension.class)
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.utils.RecordingStatementInspector")
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @Sql(scripts = "/schema.sql")
 @Sql(scripts = "/delete-data.sql", executionPhase = AFTER_TEST_METHOD)
@@ -38,24 +41,67 @@ public class CommentRepositoryTest {
         User owner = new User(null, "user", "qwe@mail.com");
         User booker = new User(null, "user2", "asd@mail.com");
         Item item = new Item(null, "item", "desc", true, owner, null);
+        Item item2 = new Item(null, "item2", "desc2", true, owner, null);
         Booking booking = new Booking(null, getLTD(2), getLTD(3), item, booker, BookingStatus.APPROVED);
-        Comment comment = new Comment(null, "text", item, booker, getLTD(3));
         manager.persist(owner);
         manager.persist(booker);
         manager.persist(item);
+        manager.persist(item2);
         manager.persist(booking);
-        manager.persist(comment);
+        manager.persist(new Comment(null, "text", item, booker, getLTD(3)));
+        manager.persist(new Comment(null, "text2", item, booker, getLTD(4)));
+        manager.persist(new Comment(null, "text3", item, owner, getLTD(4)));
+        manager.persist(new Comment(null, "text4", item2, booker, getLTD(3)));
+        manager.flush();
+        manager.clear();
     }
 
     @Test
-    public void findAllByItemId() {
-        List<Comment> comments = repository.findAllByItemId(1L);
-        assertThat(comments).hasSize(1);
-        assertThat(comments.get(0).getId()).isEqualTo(1L);
-        assertThat(comments.get(0).getText()).isEqualTo("text");
+    public void findByItemId() {
+        List<Comment> comments = repository.findByItemId(1L, PageRequest.of(0, 2));
+        assertThat(comments).extracting(Comment::getId).containsExactly(3L, 2L);
+        assertThat(comments.get(0).getText()).isEqualTo("text3");
+        assertThat(comments.get(0).getAuthor().getName()).isEqualTo("user");
+    }
+
+    @Test
+    public void findByItemIdBefore() {
+        Comment last = repository.findByItemId(1L, PageRequest.of(0, 2)).get(1);
+
+        List<Comment> comments = repository.findByItemIdBefore(1L, last.getCreated(), last.getId(),
+                PageRequest.of(0, 2));
+        assertThat(comments).extracting(Comment::getId).containsExactly(1L);
+    }
+
+    @Test
+    public void countByItemId() {
+        assertThat(repository.countByItemId(1L)).isEqualTo(3);
+        assertThat(repository.countByItemId(2L)).isEqualTo(1);
+    }
+
+    @Test
+    public void findLatestByItemIdIn() {
+        List<CommentView> comments = repository.findLatestByItemIdIn(List.of(1L, 2L, 3L), 2);
+
+        assertThat(comments).extracting(CommentView::getId).containsExactly(3L, 2L, 4L);
+        assertThat(comments).extracting(CommentView::getItemId).containsExactly(1L, 1L, 2L);
+        assertThat(comments).extracting(CommentView::getTotal).containsExactly(3L, 3L, 1L);
+        assertThat(comments.get(0).getAuthorName()).isEqualTo("user");
+        assertThat(comments.get(0).getText()).isEqualTo("text3");
+        assertThat(comments.get(0).getCreated()).isEqualTo(repository.findById(3L).get().getCreated());
     }
 
     private LocalDateTime getLTD(int sec) {
         return LocalDateTime.now().plusSeconds(sec).truncatedTo(ChronoUnit.SECONDS);
     }
+
+    @Test
+    public void findByItemIdDoesNotLoadItem() {
+        RecordingStatementInspector.clear();
+
+        List<Comment> comments = repository.findByItemId(1L, PageRequest.of(0, 3));
+        assertThat(comments).extracting(comment -> comment.getAuthor().getName())
+                .containsExactly("user", "user2", "user2");
+        assertThat(RecordingStatementInspector.count()).isEqualTo(1);
+    }
 }
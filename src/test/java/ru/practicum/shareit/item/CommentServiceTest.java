@@ -6,11 +6,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserService;
@@ -18,11 +20,14 @@ import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -55,11 +60,11 @@ public class CommentServiceTest {
         Item item = new Item(1L, "item", "desc", true, new User(), null);
         when(userService.getUserById(any())).thenReturn(new UserDto());
         when(itemService.getItemById(any())).thenReturn(item);
-        when(bookingService.getByItemId(any(), any(), any())).thenReturn(new Booking());
+        when(bookingService.hasFinishedBooking(any(), any(), any())).thenReturn(true);
         when(commentMapper.fromDto(commentDto)).thenReturn(new Comment());
         when(userMapper.fromDto(any())).thenReturn(new User(1L, "user", "qwe@mail.com"));
         when(repository.save(any())).thenReturn(new Comment());
-        when(commentMapper.toDto(any())).thenReturn(commentDto);
+        when(commentMapper.toDto(any(Comment.class))).thenReturn(commentDto);
 
         CommentDto savedComment = commentService.add(1L, 1L, commentDto);
         assertThat(savedComment).usingRecursiveComparison().isEqualTo(commentDto);
@@ -67,7 +72,7 @@ public class CommentServiceTest {
 
     @Test
     public void addCommentWithoutUser() {
-        when(userService.getUserById(anyLong())).thenReturn(null);
+        when(userService.getUserById(anyLong())).thenThrow(new ObjectNotFoundException("Пользователь не найден"));
 
         assertThatThrownBy(() ->
                 commentService.add(1L, 1L, new CommentDto()))
@@ -77,7 +82,7 @@ public class CommentServiceTest {
     @Test
     public void addCommentWithoutItem() {
         when(userService.getUserById(anyLong())).thenReturn(new UserDto());
-        when(itemService.getItemById(anyLong())).thenReturn(null);
+        when(itemService.getItemById(anyLong())).thenThrow(new ObjectNotFoundException("Предмет не найден"));
 
         assertThatThrownBy(() ->
                 commentService.add(1L, 1L, new CommentDto()))
@@ -88,7 +93,7 @@ public class CommentServiceTest {
     public void addCommentWithoutBooking() {
         when(userService.getUserById(anyLong())).thenReturn(new UserDto());
         when(itemService.getItemById(anyLong())).thenReturn(new Item());
-        when(bookingService.getByItemId(any(), any(), any())).thenReturn(null);
+        when(bookingService.hasFinishedBooking(any(), any(), any())).thenReturn(false);
 
         assertThatThrownBy(() ->
                 commentService.add(1L, 1L, new CommentDto()))
@@ -96,17 +101,72 @@ public class CommentServiceTest {
     }
 
     @Test
-    public void getAllByItemId() {
-        when(repository.findAllByItemId(anyLong())).thenReturn(List.of(new Comment(), new Comment()));
-        when(commentMapper.toDto(any())).thenReturn(new CommentDto());
+    public void getByItemId() {
+        when(itemService.existsById(1L)).thenReturn(true);
+        when(repository.findByItemId(1L, PageRequest.of(0, 2))).thenReturn(List.of(new Comment(), new Comment()));
+        when(commentMapper.toDto(any(Comment.class))).thenReturn(new CommentDto());
 
-        List<CommentDto> comments = commentService.getAllByItemId(1L);
+        List<CommentDto> comments = commentService.getByItemId(1L, 2, null);
         assertThat(comments).hasSize(2);
     }
 
     @Test
-    public void getAllByItemIdWithoutItem() {
-        List<CommentDto> comments = commentService.getAllByItemId(null);
-        assertThat(comments).hasSize(0);
+    public void getByItemIdAfterCursor() {
+        LocalDateTime created = LocalDateTime.of(2022, 1, 1, 12, 0);
+        String cursor = new CommentCursor(created, 5L).encode();
+        when(itemService.existsById(1L)).thenReturn(true);
+        when(repository.findByItemIdBefore(1L, created, 5L, PageRequest.of(0, 2))).thenReturn(List.of(new Comment()));
+        when(commentMapper.toDto(any(Comment.class))).thenReturn(new CommentDto());
+
+        List<CommentDto> comments = commentService.getByItemId(1L, 2, cursor);
+        assertThat(comments).hasSize(1);
+    }
+
+    @Test
+    public void getByItemIdWithoutItem() {
+        when(itemService.existsById(1L)).thenReturn(false);
+
+        assertThatThrownBy(() ->
+                commentService.getByItemId(1L, 2, null))
+                .isInstanceOf(ObjectNotFoundException.class);
+    }
+
+    @Test
+    public void getByItemIdWithWrongCursor() {
+        assertThatThrownBy(() ->
+                commentService.getByItemId(1L, 2, "???"))
+                .isInstanceOf(ValidationException.class);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void setLatestComments() {
+        ItemWithBookingDto item = new ItemWithBookingDto(1L, "item", "desc", true, null, null, null, null);
+        ItemWithBookingDto item2 = new ItemWithBookingDto(2L, "item2", "desc2", true, null, null, null, null);
+        CommentView comment = view(1L, 3L);
+        CommentView comment2 = view(1L, 3L);
+        CommentDto commentDto = new CommentDto(1L, "text", "user", null);
+        when(repository.findLatestByItemIdIn(Set.of(1L, 2L), CommentServiceImpl.LATEST_COMMENTS_LIMIT))
+                .thenReturn(List.of(comment, comment2));
+        when(commentMapper.toDto(any(CommentView.class))).thenReturn(commentDto);
+
+        commentService.setLatestComments(List.of(item, item2));
+        assertThat(item.getComments()).hasSize(2);
+        assertThat(item.getCommentCount()).isEqualTo(3L);
+        assertThat(item2.getComments()).isEmpty();
+        assertThat(item2.getCommentCount()).isZero();
+    }
+
+    @Test
+    public void setLatestCommentsWithoutItems() {
+        commentService.setLatestComments(List.of());
+        verifyNoInteractions(repository);
+    }
+
+    private CommentView view(Long itemId, Long total) {
+        CommentView view = mock(CommentView.class);
+        when(view.getItemId()).thenReturn(itemId);
+        when(view.getTotal()).thenReturn(total);
+        return view;
     }
 }
@@ -24,7 +24,10 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -207,6 +210,44 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(itemDto.getAvailable())));
     }
 
+    @Test
+    public void getComments() throws Exception {
+        LocalDateTime created = LocalDateTime.of(2022, 1, 1, 12, 0);
+        CommentDto comment = new CommentDto(2L, "text2", "user", created);
+        CommentDto comment2 = new CommentDto(1L, "text", "user", created);
+        when(itemService.getComments(1L, 2, null)).thenReturn(List.of(comment, comment2));
+        when(itemService.countComments(1L)).thenReturn(3L);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/1/comments")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.TOTAL_COUNT_HEADER, "3"))
+                .andExpect(header().string(ItemController.NEXT_CURSOR_HEADER,
+                        new CommentCursor(created, 1L).encode()))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(2L), Long.class))
+                .andExpect(jsonPath("$[1].id", is(1L), Long.class));
+    }
+
+    @Test
+    public void getCommentsLastPage() throws Exception {
+        when(itemService.getComments(1L, 20, "cursor")).thenReturn(List.of());
+        when(itemService.countComments(1L)).thenReturn(3L);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/1/comments")
+                        .param("cursor", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ItemController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    public void getCommentsWithTooLargeSize() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/1/comments")
+                        .param("size", String.valueOf(ItemController.MAX_COMMENTS + 1)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void getItemByIdWithoutHeader() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.get(url + "/1"))
@@ -262,6 +303,60 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[1].available", is(itemDto2.getAvailable())));
     }
 
+    @Test
+    public void getItemsByRelevance() throws Exception {
+        ItemDto itemDto = new ItemDto(2L, "item", "item desc", true, null);
+        ItemDto itemDto2 = new ItemDto(1L, "new item", "desc", true, null);
+        when(itemService.getItemsByRelevance("item", 0, 20)).thenReturn(List.of(itemDto, itemDto2));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/search")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("text", "item")
+                        .param("sort", "relevance")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(itemDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].id", is(itemDto2.getId()), Long.class));
+        verify(itemService, never()).getItemsBySearch(any(), any(), any());
+    }
+
+    @Test
+    public void getItemsByFuzzySearch() throws Exception {
+        ItemDto itemDto = new ItemDto(1L, "item", "desc", true, null);
+        when(itemService.getItemsByFuzzySearch("itme", 0, 40)).thenReturn(List.of(itemDto));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/search")
+                        .param("text", "itme")
+                        .param("fuzzy", "true")
+                        .param("sort", "relevance"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(itemDto.getId()), Long.class));
+        verify(itemService, never()).getItemsByRelevance(any(), any(), any());
+    }
+
+    @Test
+    public void getSuggestions() throws Exception {
+        when(itemService.getSuggestions("dr", 10)).thenReturn(List.of("drill", "driver"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/suggest")
+                        .param("prefix", "dr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]", is("drill")))
+                .andExpect(jsonPath("$[1]", is("driver")));
+    }
+
+    @Test
+    public void getSuggestionsWithTooLargeSize() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/suggest")
+                        .param("prefix", "dr")
+                        .param("size", String.valueOf(ItemController.MAX_SUGGESTIONS + 1)))
+                .andExpect(status().isBadRequest());
+        verify(itemService, never()).getSuggestions(any(), any());
+    }
+
     @Test
     public void getItemsBySearchWithoutText() throws Exception {
         when(itemService.getItemsBySearch(any(), any(), any())).thenReturn(List.of());
@@ -14,6 +14,7 @@ import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -29,6 +30,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -46,9 +48,21 @@ public class ItemIntegrationTest {
     private ObjectMapper objectMapper;
     @Autowired
     private ItemRepository repository;
+    @Autowired
+    private BookingIntervalIndex intervalIndex;
+    @Autowired
+    private ItemSearchIndex searchIndex;
+    @Autowired
+    private ItemSearchCache searchCache;
+    @Autowired
+    private ItemSuggestIndex suggestIndex;
 
     @BeforeEach
     public void setUp() throws Exception {
+        intervalIndex.invalidateAll();
+        searchIndex.invalidate();
+        searchCache.clear();
+        suggestIndex.invalidate();
         UserDto user = new UserDto(null, "user", "mail@qwerty.com");
         UserDto user2 = new UserDto(null, "user2", "qwe@qwerty.com");
         ItemRequestDto request = new ItemRequestDto(null, "request", null, null);
@@ -107,6 +121,45 @@ public class ItemIntegrationTest {
         assertThat(items.get(0).getName()).isEqualTo("item");
     }
 
+    @Test
+    public void getByUnknownOwner() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(url).header("X-Sharer-User-Id", 100L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void searchAfterUpdate() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/search").param("text", "desc"))
+                .andExpect(jsonPath("$", hasSize(2)));
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/search").param("text", "hammer"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(patchRequest(new ItemDto(null, "hammer", null, false, null), 1L, 1L));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/search").param("text", "desc"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(2)));
+        mockMvc.perform(patchRequest(new ItemDto(null, null, null, true, null), 1L, 1L));
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/search").param("text", "hammer"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
+    @Test
+    public void suggestAfterUpdate() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/suggest").param("prefix", "I"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0]", is("item")));
+        mockMvc.perform(patchRequest(new ItemDto(null, "hammer", null, null, null), 1L, 1L));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/suggest").param("prefix", "h"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0]", is("hammer")));
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/suggest").param("prefix", "ne"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0]", is("new")));
+    }
+
     @Test
     public void searchByText() {
         List<Item> items = repository.findByText("ne", Pageable.unpaged());
@@ -131,7 +184,13 @@ public class ItemIntegrationTest {
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.name", is("item")))
                 .andExpect(jsonPath("$.comments", hasSize(1)))
-                .andExpect(jsonPath("$.comments[0].text", is(commentDto.getText())));
+                .andExpect(jsonPath("$.comments[0].text", is(commentDto.getText())))
+                .andExpect(jsonPath("$.commentCount", is(1)));
+        mockMvc.perform(MockMvcRequestBuilders.get(url + "/1/comments"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.TOTAL_COUNT_HEADER, "1"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].authorName", is("user2")));
     }
 
     @Test
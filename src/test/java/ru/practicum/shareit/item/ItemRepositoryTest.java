@@ -13,6 +13,7 @@ import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import ru.practicum.shareit.requests.ItemRequest;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.utils.RecordingStatementInspector;
 import ru.practicum.shareit.utils.OffsetPageRequest;
 
 import java.time.LocalDateTime;
@@ -22,7 +23,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
 
 @ExtendWith(SpringExtension.class)
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.utils.RecordingStatementInspector")
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @Sql(scripts = "/schema.sql")
 @Sql(scripts = "/delete-data.sql", executionPhase = AFTER_TEST_METHOD)
@@ -69,6 +71,21 @@ public class ItemRepositoryTest {
         assertThat(items.get(0).getDescription()).isEqualTo("desc2");
     }
 
+    @Test
+    public void existsByOwnerId() {
+        assertThat(repository.existsByOwnerId(2L)).isTrue();
+        assertThat(repository.existsByOwnerId(99L)).isFalse();
+    }
+
+    @Test
+    public void getAvailable() {
+        Item item = repository.findById(2L).get();
+        item.setAvailable(false);
+        repository.save(item);
+
+        assertThat(repository.findByAvailableTrue()).extracting(Item::getId).containsExactlyInAnyOrder(1L, 3L);
+    }
+
     @Test
     public void searchByTextInName() {
         List<Item> items = repository.findByText("sec", Pageable.unpaged());
@@ -104,4 +121,28 @@ public class ItemRepositoryTest {
         assertThat(items.get(0).getName()).isEqualTo("item");
         assertThat(items.get(0).getDescription()).isEqualTo("desc");
     }
+
+    @Test
+    public void findByRequestIdIn() {
+        assertThat(repository.findByRequestIdIn(List.of(1L, 2L))).extracting(Item::getId).containsExactly(1L);
+    }
+
+    @Test
+    public void listQueriesFetchOwnerAndRequestInSingleSelect() {
+        manager.flush();
+        manager.clear();
+        RecordingStatementInspector.clear();
+
+        assertThat(repository.findByOwnerId(1L, Pageable.unpaged()))
+                .extracting(item -> item.getOwner().getName()).containsOnly("user");
+        assertThat(repository.findByText("item", Pageable.unpaged()))
+                .extracting(item -> item.getOwner().getName()).containsOnly("user", "user2");
+        assertThat(repository.findByAvailableTrue())
+                .extracting(item -> item.getOwner().getName()).containsOnly("user", "user2");
+        assertThat(repository.findAllById(List.of(1L, 3L)))
+                .extracting(item -> item.getOwner().getName()).containsExactlyInAnyOrder("user", "user2");
+        assertThat(repository.getAllByRequestId(1L))
+                .extracting(item -> item.getRequest().getDescription()).containsOnly("desc");
+        assertThat(RecordingStatementInspector.count()).isEqualTo(5);
+    }
 }
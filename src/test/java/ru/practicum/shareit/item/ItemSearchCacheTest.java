@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ItemSearchCacheTest {
+
+    private final ItemSearchCache cache = new ItemSearchCache(2);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void getCountsHitsAndMisses() {
+        cache.get("drill", 0, 10, this::load);
+        cache.get("drill", 0, 10, this::load);
+        cache.get("drill", 10, 10, this::load);
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.getHitRatio()).isEqualTo(1.0 / 3);
+    }
+
+    @Test
+    public void bindHitsMissesAndSize() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.get("drill", 0, 10, this::load);
+        cache.get("drill", 0, 10, this::load);
+
+        assertThat(registry.get("cache.gets").tags("cache", "itemSearch", "result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags("cache", "itemSearch", "result", "miss").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("cache.size").tags("cache", "itemSearch").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    public void keepRankedPagesApart() {
+        cache.get("drill", 0, 10, this::load);
+        cache.get("drill", true, 0, 10, this::load);
+        cache.get("drill", true, 0, 10, this::load);
+
+        assertThat(loads).hasValue(2);
+        cache.evictMatching("drill");
+        assertThat(cache.getSize()).isZero();
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        cache.get("drill", 0, 10, this::load);
+        cache.get("tent", 0, 10, this::load);
+        cache.get("drill", 0, 10, this::load);
+        cache.get("ladder", 0, 10, this::load);
+
+        assertThat(cache.getSize()).isEqualTo(2);
+        cache.get("drill", 0, 10, this::load);
+        cache.get("tent", 0, 10, this::load);
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    public void evictOnlyMatchingTexts() {
+        cache.get("drill", 0, 10, this::load);
+        cache.get("tent", 0, 10, this::load);
+
+        cache.evictMatching("Cordless Drill", null);
+
+        assertThat(cache.getSize()).isEqualTo(1);
+        cache.get("tent", 0, 10, this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void skipStoringPageLoadedBeforeEviction() {
+        cache.get("drill", 0, 10, () -> {
+            cache.evictMatching("drill");
+            return load();
+        });
+        cache.get("drill", 0, 10, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private List<ItemDto> load() {
+        loads.incrementAndGet();
+        return List.of(new ItemDto(1L, "drill", "desc", true, null));
+    }
+}
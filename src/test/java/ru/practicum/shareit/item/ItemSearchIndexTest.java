@@ -0,0 +1,140 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRemovedEvent;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository repository;
+
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new ItemSearchIndex(repository, new ItemMapper());
+        when(repository.findByAvailableTrue()).thenReturn(List.of(
+                item(1L, "Дрель", "Простая дрель", true),
+                item(2L, "Отвертка", "Аккумуляторная отвертка", true),
+                item(3L, "Клей", "Тюбик суперклея", true),
+                item(4L, "Дрель ударная", "Мощная", true)));
+    }
+
+    @Test
+    public void searchByNameAndDescription() {
+        assertThat(ids(index.search("дрель", 0, 10))).containsExactly(1L, 4L);
+        assertThat(ids(index.search("аккумулятор", 0, 10))).containsExactly(2L);
+        assertThat(ids(index.search("перкле", 0, 10))).containsExactly(3L);
+    }
+
+    @Test
+    public void searchRequiresContiguousSubstring() {
+        assertThat(ids(index.search("ель у", 0, 10))).containsExactly(4L);
+        assertThat(ids(index.search("дрель мощ", 0, 10))).isEmpty();
+    }
+
+    @Test
+    public void searchByShortText() {
+        assertThat(ids(index.search("й", 0, 10))).containsExactly(3L);
+        assertThat(ids(index.search("о", 0, 10))).containsExactly(1L, 2L, 4L);
+    }
+
+    @Test
+    public void searchWithPagination() {
+        assertThat(ids(index.search("о", 1, 1))).containsExactly(2L);
+        assertThat(ids(index.search("о", 3, 10))).isEmpty();
+    }
+
+    @Test
+    public void searchByRelevance() {
+        index.search("дрель", 0, 10);
+        index.put(item(5L, "Дрель", "Дрель, дрель", true));
+        index.put(item(6L, "Дрельщик", "desc", true));
+        index.put(item(7L, "Дрель ударная", "Мощная", true));
+
+        assertThat(ids(index.searchByRelevance("дрель", 0, 10))).containsExactly(5L, 1L, 4L, 7L, 6L);
+        assertThat(ids(index.searchByRelevance("дрель", 1, 2))).containsExactly(1L, 4L);
+        assertThat(ids(index.searchByRelevance("дрель", 5, 10))).isEmpty();
+        assertThat(ids(index.searchByRelevance("дрель мощ", 0, 10))).isEmpty();
+    }
+
+    @Test
+    public void searchByRelevanceWithShortText() {
+        assertThat(ids(index.searchByRelevance("й", 0, 10))).containsExactly(3L);
+        assertThat(ids(index.searchByRelevance("о", 0, 10))).containsExactly(2L, 1L, 4L);
+    }
+
+    @Test
+    public void searchFuzzy() {
+        assertThat(ids(index.searchFuzzy("дрэль", 0, 10))).containsExactly(1L, 4L);
+        assertThat(ids(index.searchFuzzy("отвёртка", 0, 10))).containsExactly(2L);
+        assertThat(ids(index.searchFuzzy("клй", 0, 10))).containsExactly(3L);
+        assertThat(ids(index.searchFuzzy("дрель ударнрая", 0, 10))).containsExactly(4L);
+    }
+
+    @Test
+    public void searchFuzzyWithinBoundedDistance() {
+        assertThat(index.searchFuzzy("дрл", 0, 10)).isEmpty();
+        assertThat(index.searchFuzzy("др", 0, 10)).isEmpty();
+        assertThat(index.searchFuzzy("дрель молоток", 0, 10)).isEmpty();
+        assertThat(ItemSearchIndex.distance("kitten", "sitting")).isEqualTo(3);
+        assertThat(ItemSearchIndex.distance("", "abc")).isEqualTo(3);
+    }
+
+    @Test
+    public void searchFuzzyWithPaginationAndUpdates() {
+        assertThat(ids(index.searchFuzzy("дрэль", 1, 1))).containsExactly(4L);
+
+        index.put(item(1L, "Перфоратор", "Простой", true));
+        index.put(item(5L, "Дрелька", "desc", true));
+
+        assertThat(ids(index.searchFuzzy("дрэль", 0, 10))).containsExactly(4L);
+        assertThat(ids(index.searchFuzzy("дрелька", 0, 10))).containsExactly(4L, 5L);
+        assertThat(ids(index.searchFuzzy("перфоратр", 0, 10))).containsExactly(1L);
+    }
+
+    @Test
+    public void putUpdatesIndex() {
+        index.search("дрель", 0, 10);
+
+        index.put(item(5L, "Дрель-шуруповерт", "desc", true));
+        index.put(item(1L, "Перфоратор", "Простой", true));
+        index.put(item(4L, "Дрель ударная", "Мощная", false));
+
+        assertThat(ids(index.search("дрель", 0, 10))).containsExactly(5L);
+        assertThat(ids(index.search("перфоратор", 0, 10))).containsExactly(1L);
+        verify(repository, times(1)).findByAvailableTrue();
+    }
+
+    @Test
+    public void reloadAfterUserRemoved() {
+        index.search("дрель", 0, 10);
+        index.onUserRemoved(new UserRemovedEvent(1L));
+        index.search("дрель", 0, 10);
+
+        verify(repository, times(2)).findByAvailableTrue();
+    }
+
+    private Item item(Long id, String name, String description, boolean available) {
+        return new Item(id, name, description, available, new User(), null);
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.booking.BookingStatus;
@@ -16,13 +17,19 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.RequestEntityCache;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -52,6 +59,18 @@ public class ItemServiceTest {
     @Mock
     private ItemRepository repository;
 
+    @Mock
+    private ItemSearchIndex searchIndex;
+
+    @Mock
+    private ItemSearchCache searchCache;
+
+    @Mock
+    private ItemSuggestIndex suggestIndex;
+
+    @Spy
+    private RequestEntityCache requestCache;
+
     @Test
     public void addItem() {
         ItemDto itemDto = new ItemDto(1L, "item", "desc", true, null);
@@ -63,6 +82,9 @@ public class ItemServiceTest {
 
         ItemDto savedItem = itemService.addItem(itemDto, 1L);
         assertThat(savedItem).usingRecursiveComparison().isEqualTo(itemDto);
+        verify(searchIndex).put(item);
+        verify(suggestIndex).put(item);
+        verify(searchCache).evictMatching("item", "desc");
     }
 
     @Test
@@ -79,25 +101,24 @@ public class ItemServiceTest {
     public void updateItem() {
         ItemDto itemDto = new ItemDto(1L, "new item", "new desc", false, null);
         Item item = new Item(1L, "item", "desc", true, new User(), null);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
         when(itemMapper.toDto(item)).thenReturn(itemDto);
-        when(userMapper.fromDto(any())).thenReturn(new User());
         when(repository.findByOwnerId(any(), any())).thenReturn(List.of(item));
         when(repository.findById(anyLong())).thenReturn(Optional.of(item));
         when(repository.save(any())).thenReturn(item);
 
         ItemDto savedItem = itemService.updateItem(itemDto, 1L, item.getId());
         assertThat(savedItem).usingRecursiveComparison().isEqualTo(itemDto);
+        verify(searchIndex).put(item);
+        verify(suggestIndex).put(item);
+        verify(searchCache).evictMatching("item", "desc", "new item", "new desc");
     }
 
     @Test
     public void updateItemWithOnlyName() {
         ItemDto itemDto = new ItemDto(1L, "new item", null, null, null);
         Item item = new Item(1L, "item", "desc", true, new User(), null);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
         when(itemMapper.toDto(item)).thenReturn(new ItemDto(
                 1L, "new item", "desc", true, null));
-        when(userMapper.fromDto(any())).thenReturn(new User());
         when(repository.findByOwnerId(any(), any())).thenReturn(List.of(item));
         when(repository.findById(anyLong())).thenReturn(Optional.of(item));
         when(repository.save(any())).thenReturn(item);
@@ -113,10 +134,8 @@ public class ItemServiceTest {
     public void updateItemWithOnlyDescription() {
         ItemDto itemDto = new ItemDto(1L, null, "new desc", null, null);
         Item item = new Item(1L, "item", "desc", true, new User(), null);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
         when(itemMapper.toDto(item)).thenReturn(new ItemDto(
                 1L, "item", "new desc", true, null));
-        when(userMapper.fromDto(any())).thenReturn(new User());
         when(repository.findByOwnerId(any(), any())).thenReturn(List.of(item));
         when(repository.findById(anyLong())).thenReturn(Optional.of(item));
         when(repository.save(any())).thenReturn(item);
@@ -134,7 +153,6 @@ public class ItemServiceTest {
         Item item = new Item(1L, "item", "desc", true, new User(), null);
         when(itemMapper.toDto(item)).thenReturn(new ItemDto(
                 1L, "item", "desc", false, null));
-        when(userMapper.fromDto(any())).thenReturn(new User());
         when(repository.findByOwnerId(any(), any())).thenReturn(List.of(item));
         when(repository.findById(anyLong())).thenReturn(Optional.of(item));
         when(repository.save(any())).thenReturn(item);
@@ -164,10 +182,11 @@ public class ItemServiceTest {
                 new User(1L, "name", "desc"), null);
         when(repository.findById(anyLong())).thenReturn(Optional.of(item));
         when(ownerItemMapper.toDto(item)).thenReturn(itemDto);
-        when(commentService.getAllByItemId(anyLong())).thenReturn(List.of());
 
         ItemWithBookingDto savedItem = itemService.getItemById(2L, itemDto.getId());
         assertThat(savedItem).usingRecursiveComparison().isEqualTo(itemDto);
+        verify(bookingService, never()).setLastAndNextBookings(anyList());
+        verify(commentService).setLatestComments(List.of(itemDto));
     }
 
     @Test
@@ -182,9 +201,11 @@ public class ItemServiceTest {
                 BookingStatus.WAITING);
         when(repository.findById(anyLong())).thenReturn(Optional.of(item));
         when(ownerItemMapper.toDto(item)).thenReturn(itemDto);
-        when(commentService.getAllByItemId(anyLong())).thenReturn(List.of());
-        when(bookingService.getLastBooking(anyLong())).thenReturn(lastBooking);
-        when(bookingService.getNextBooking(anyLong())).thenReturn(nextBooking);
+        doAnswer(invocation -> {
+            itemDto.setLastBooking(lastBooking);
+            itemDto.setNextBooking(nextBooking);
+            return null;
+        }).when(bookingService).setLastAndNextBookings(List.of(itemDto));
 
         ItemWithBookingDto savedItem = itemService.getItemById(item.getOwner().getId(), itemDto.getId());
         assertThat(savedItem.getId()).isEqualTo(itemDto.getId());
@@ -197,6 +218,16 @@ public class ItemServiceTest {
         assertThat(savedItem.getItemRequest()).isNull();
     }
 
+    @Test
+    public void getEntityByIdKeepsFetchedOwner() {
+        User owner = new User(1L, "name", "owner@mail.ru");
+        Item item = new Item(1L, "item", "desc", true, owner, null);
+        when(repository.findById(1L)).thenReturn(Optional.of(item));
+
+        assertThat(itemService.getItemById(1L).getOwner()).isSameAs(owner);
+        verifyNoInteractions(userService, userMapper);
+    }
+
     @Test
     public void getByIdByWrongUser() {
         when(repository.findById(anyLong())).thenReturn(Optional.empty());
@@ -220,10 +251,14 @@ public class ItemServiceTest {
                 BookingStatus.APPROVED);
         BookingDto nextBooking = new BookingDto(2L, null, null, item, 1L, new User(), 3L,
                 BookingStatus.WAITING);
+        when(userService.existsById(1L)).thenReturn(true);
         when(ownerItemMapper.toDto(List.of(item, item2))).thenReturn(List.of(itemDto, itemDto2));
         when(repository.findByOwnerId(anyLong(), any())).thenReturn(List.of(item, item2));
-        when(bookingService.getLastBooking(item.getId())).thenReturn(lastBooking);
-        when(bookingService.getNextBooking(item.getId())).thenReturn(nextBooking);
+        doAnswer(invocation -> {
+            itemDto.setLastBooking(lastBooking);
+            itemDto.setNextBooking(nextBooking);
+            return null;
+        }).when(bookingService).setLastAndNextBookings(List.of(itemDto, itemDto2));
 
         List<ItemWithBookingDto> savedItems = itemService.getItemsByOwner(item.getOwner().getId(), 0, 10);
         assertThat(savedItems.get(0).getId()).isEqualTo(itemDto.getId());
@@ -234,12 +269,14 @@ public class ItemServiceTest {
         assertThat(savedItems.get(0).getNextBooking().getId()).isEqualTo(nextBooking.getId());
         assertThat(savedItems.get(0).getComments()).hasSize(0);
         assertThat(savedItems.get(0).getItemRequest()).isNull();
+        verify(commentService).setLatestComments(List.of(itemDto, itemDto2));
 
         assertThat(savedItems.get(1)).usingRecursiveComparison().isEqualTo(itemDto2);
     }
 
     @Test
     public void geAllByWrongOwner() {
+        when(userService.existsById(1L)).thenReturn(true);
         when(ownerItemMapper.toDto(List.of())).thenReturn(List.of());
         when(repository.findByOwnerId(anyLong(), any())).thenReturn(List.of());
 
@@ -247,12 +284,31 @@ public class ItemServiceTest {
         assertThat(savedItems).hasSize(0);
     }
 
+    @Test
+    public void geAllByUnknownOwner() {
+        when(userService.existsById(100L)).thenReturn(false);
+
+        assertThatThrownBy(() -> itemService.getItemsByOwner(100L, 0, 10))
+                .isInstanceOf(ObjectNotFoundException.class);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void getComments() {
+        CommentDto commentDto = new CommentDto(1L, "text", "user", null);
+        when(commentService.getByItemId(1L, 10, "cursor")).thenReturn(List.of(commentDto));
+        when(commentService.countByItemId(1L)).thenReturn(11L);
+
+        assertThat(itemService.getComments(1L, 10, "cursor")).containsExactly(commentDto);
+        assertThat(itemService.countComments(1L)).isEqualTo(11L);
+    }
+
     @Test
     public void searchByName() {
         ItemDto itemDto = new ItemDto(1L, "item", "desc", true, null);
-        Item item = new Item(1L, "item", "desc", true, new User(), null);
-        when(repository.findByText(any(), any())).thenReturn(List.of(item));
-        when(itemMapper.toDto(anyList())).thenReturn(List.of(itemDto));
+        when(searchCache.get(eq("item"), eq(0), eq(10), any())).thenAnswer(invocation ->
+                invocation.<Supplier<List<ItemDto>>>getArgument(3).get());
+        when(searchIndex.search("item", 0, 10)).thenReturn(List.of(itemDto));
 
         List<ItemDto> items = itemService.getItemsBySearch("ItEm", 0, 10);
         assertThat(items).hasSize(1);
@@ -262,9 +318,7 @@ public class ItemServiceTest {
     @Test
     public void searchByDescription() {
         ItemDto itemDto = new ItemDto(1L, "item", "desc", true, null);
-        Item item = new Item(1L, "item", "desc", true, new User(), null);
-        when(repository.findByText(anyString(), any())).thenReturn(List.of(item));
-        when(itemMapper.toDto(anyList())).thenReturn(List.of(itemDto));
+        when(searchCache.get(eq("desc"), eq(0), eq(10), any())).thenReturn(List.of(itemDto));
 
         List<ItemDto> items = itemService.getItemsBySearch("DESC   ", 0, 10);
         assertThat(items).hasSize(1);
@@ -272,11 +326,53 @@ public class ItemServiceTest {
     }
 
     @Test
-    public void searchWithEmptyText() {
-        when(itemMapper.toDto(anyList())).thenReturn(List.of());
+    public void searchByRelevance() {
+        ItemDto itemDto = new ItemDto(1L, "item", "desc", true, null);
+        when(searchCache.get(eq("item"), eq(true), eq(0), eq(10), any())).thenAnswer(invocation ->
+                invocation.<Supplier<List<ItemDto>>>getArgument(4).get());
+        when(searchIndex.searchByRelevance("item", 0, 10)).thenReturn(List.of(itemDto));
 
+        List<ItemDto> items = itemService.getItemsByRelevance(" Item", 0, 10);
+        assertThat(items).hasSize(1);
+        assertThat(items.get(0)).usingRecursiveComparison().isEqualTo(itemDto);
+    }
+
+    @Test
+    public void searchByRelevanceWithEmptyText() {
+        List<ItemDto> items = itemService.getItemsByRelevance("", 0, 10);
+        assertThat(items).hasSize(0);
+        verifyNoInteractions(searchIndex, searchCache);
+    }
+
+    @Test
+    public void searchFuzzy() {
+        ItemDto itemDto = new ItemDto(1L, "item", "desc", true, null);
+        when(searchIndex.searchFuzzy("itme", 0, 10)).thenReturn(List.of(itemDto));
+
+        List<ItemDto> items = itemService.getItemsByFuzzySearch("ITME ", 0, 10);
+        assertThat(items).hasSize(1);
+        assertThat(items.get(0)).usingRecursiveComparison().isEqualTo(itemDto);
+        verifyNoInteractions(searchCache);
+    }
+
+    @Test
+    public void getSuggestions() {
+        when(suggestIndex.suggest("dr", 5)).thenReturn(List.of("drill", "driver"));
+
+        assertThat(itemService.getSuggestions(" DR", 5)).containsExactly("drill", "driver");
+    }
+
+    @Test
+    public void getSuggestionsWithEmptyPrefix() {
+        assertThat(itemService.getSuggestions("  ", 5)).isEmpty();
+        verifyNoInteractions(suggestIndex);
+    }
+
+    @Test
+    public void searchWithEmptyText() {
         List<ItemDto> items = itemService.getItemsBySearch("   ", 0, 10);
         assertThat(items).hasSize(0);
+        verifyNoInteractions(searchIndex, searchCache);
     }
 
     @Test
@@ -308,4 +404,35 @@ public class ItemServiceTest {
         List<ItemDto> savedItems = itemService.getAllByRequestId(1L);
         assertThat(savedItems).hasSize(0);
     }
+
+    @Test
+    public void getAllByRequestIdIn() {
+        ItemDto itemDto = new ItemDto(1L, "item", "desc", true, 1L);
+        Item item = new Item(1L, "item", "desc", true, new User(), null);
+        when(repository.findByRequestIdIn(List.of(1L, 2L))).thenReturn(List.of(item));
+        when(itemMapper.toDto(List.of(item))).thenReturn(List.of(itemDto));
+
+        assertThat(itemService.getAllByRequestIdIn(List.of(1L, 2L))).containsExactly(itemDto);
+    }
+
+    @Test
+    public void getAllByRequestIdInWithoutRequests() {
+        assertThat(itemService.getAllByRequestIdIn(List.of())).isEmpty();
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void existsById() {
+        when(repository.existsById(1L)).thenReturn(true);
+
+        assertThat(itemService.existsById(1L)).isTrue();
+    }
+
+    @Test
+    public void existsByOwnerId() {
+        when(repository.existsByOwnerId(1L)).thenReturn(false);
+
+        assertThat(itemService.existsByOwnerId(1L)).isFalse();
+    }
 }
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRemovedEvent;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSuggestIndexTest {
+
+    @Mock
+    private ItemRepository repository;
+
+    private ItemSuggestIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new ItemSuggestIndex(repository);
+        when(repository.findByAvailableTrue()).thenReturn(List.of(
+                item(1L, "Дрель", true),
+                item(2L, "Дрель ударная", true),
+                item(3L, "Дрезина детская", true),
+                item(4L, "Палатка-дом", true),
+                item(5L, "Детская палатка", true)));
+    }
+
+    @Test
+    public void suggestByPopularityThenAlphabet() {
+        assertThat(index.suggest("д", 10)).containsExactly("детская", "дрель", "дом", "дрезина");
+        assertThat(index.suggest("др", 10)).containsExactly("дрель", "дрезина");
+        assertThat(index.suggest("па", 10)).containsExactly("палатка");
+    }
+
+    @Test
+    public void suggestLimitedBySize() {
+        assertThat(index.suggest("д", 2)).containsExactly("детская", "дрель");
+        assertThat(index.suggest("у", 1)).containsExactly("ударная");
+    }
+
+    @Test
+    public void suggestUnknownPrefix() {
+        assertThat(index.suggest("молоток", 10)).isEmpty();
+        assertThat(index.suggest("дрели", 10)).isEmpty();
+    }
+
+    @Test
+    public void putUpdatesWeights() {
+        index.suggest("д", 10);
+
+        index.put(item(6L, "Дрезина", true));
+        index.put(item(7L, "Дрезина", true));
+        index.put(item(1L, "Молоток", true));
+        index.put(item(2L, "Дрель ударная", false));
+
+        assertThat(index.suggest("д", 10)).containsExactly("дрезина", "детская", "дом");
+        assertThat(index.suggest("м", 10)).containsExactly("молоток");
+        assertThat(index.suggest("у", 10)).isEmpty();
+        verify(repository, times(1)).findByAvailableTrue();
+    }
+
+    @Test
+    public void removeDropsTokens() {
+        index.suggest("д", 10);
+
+        index.remove(3L);
+
+        assertThat(index.suggest("др", 10)).containsExactly("дрель");
+    }
+
+    @Test
+    public void reloadAfterUserRemoved() {
+        index.suggest("д", 10);
+        index.onUserRemoved(new UserRemovedEvent(1L));
+        index.suggest("д", 10);
+
+        verify(repository, times(2)).findByAvailableTrue();
+    }
+
+    private Item item(Long id, String name, boolean available) {
+        return new Item(id, name, "desc", available, new User(), null);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.utils.DataSeeder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+/**
+ * Many more concurrent owners than pooled connections reading their items over HTTP: every view must be served,
+ * none may wait for a connection held by another request.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Sql(scripts = "/schema.sql")
+@Sql(scripts = "/delete-data.sql", executionPhase = AFTER_TEST_METHOD)
+public class ItemViewLoadTest {
+
+    private static final int CLIENTS = 64;
+    private static final int REQUESTS_PER_CLIENT = 5;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void servesOwnerViewsToMoreClientsThanConnections() throws Exception {
+        DataSeeder seeder = new DataSeeder(jdbcTemplate, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS), 1000);
+        seeder.seed();
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        List<Callable<List<Integer>>> clients = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.add(() -> {
+                List<Integer> statuses = new ArrayList<>();
+                for (int j = 0; j < REQUESTS_PER_CLIENT; j++) {
+                    int item = 1 + ThreadLocalRandom.current().nextInt(seeder.getItems());
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/" +
+                                    item))
+                            .header("X-Sharer-User-Id", String.valueOf(seeder.ownerOf(item)))
+                            .timeout(Duration.ofSeconds(30))
+                            .build();
+                    statuses.add(http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+                }
+                return statuses;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        List<Integer> statuses = new ArrayList<>();
+        try {
+            for (Future<List<Integer>> client : executor.invokeAll(clients, 2, TimeUnit.MINUTES)) {
+                statuses.addAll(client.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(statuses).hasSize(CLIENTS * REQUESTS_PER_CLIENT).containsOnly(200);
+    }
+}
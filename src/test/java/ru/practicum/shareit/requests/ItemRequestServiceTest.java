@@ -15,6 +15,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -44,7 +45,7 @@ public class ItemRequestServiceTest {
     public void addRequest() {
         ItemRequestDto requestDto = new ItemRequestDto(1L, "text", LocalDateTime.now(), List.of());
         ItemRequest request = new ItemRequest(1L, null, 1L, null);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
+        when(userService.existsById(any())).thenReturn(true);
         when(requestMapper.convertFromDto(any())).thenReturn(request);
         when(repository.save(any())).thenReturn(request);
         when(requestMapper.convertToDto(request)).thenReturn(requestDto);
@@ -56,7 +57,7 @@ public class ItemRequestServiceTest {
 
     @Test
     public void addRequestWithoutUserExist() {
-        when(userService.getUserById(anyLong())).thenReturn(null);
+        when(userService.existsById(anyLong())).thenReturn(false);
 
         assertThatThrownBy(() ->
                 requestService.add(1L, new ItemRequestDto()))
@@ -69,20 +70,21 @@ public class ItemRequestServiceTest {
         ItemRequest request = new ItemRequest(1L, "text", 1L, LocalDateTime.now());
         ItemDto item = new ItemDto(1L, "item", "desc", true, 1L);
         ItemDto item2 = new ItemDto(2L, "item2", "desc2", true, 1L);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
+        when(userService.existsById(any())).thenReturn(true);
         when(repository.findAllByRequesterId(any(), any())).thenReturn(List.of(request));
         when(requestMapper.convertToDto(request)).thenReturn(requestDto);
-        when(itemService.getAllByRequestId(anyLong())).thenReturn(List.of(item, item2));
+        when(itemService.getAllByRequestIdIn(Set.of(1L))).thenReturn(List.of(item, item2));
 
         List<ItemRequestDto> requests = requestService.getAllByRequester(1L);
         assertThat(requests).hasSize(1);
         assertThat(requests.get(0)).usingRecursiveComparison().isEqualTo(requestDto);
+        assertThat(requests.get(0).getItems()).containsExactly(item, item2);
         verify(repository, times(1)).findAllByRequesterId(any(), any());
     }
 
     @Test
     public void getAllByRequesterWithoutUserExist() {
-        when(userService.getUserById(any())).thenReturn(null);
+        when(userService.existsById(any())).thenReturn(false);
 
         assertThatThrownBy(() ->
                 requestService.getAllByRequester(1L))
@@ -95,20 +97,21 @@ public class ItemRequestServiceTest {
         ItemRequest request = new ItemRequest(1L, "text", 2L, LocalDateTime.now());
         ItemDto item = new ItemDto(1L, "item", "desc", true, 1L);
         ItemDto item2 = new ItemDto(2L, "item2", "desc2", true, 1L);
-        when(userService.getUserById(any())).thenReturn(new UserDto());
+        when(userService.existsById(any())).thenReturn(true);
         when(repository.findAllByRequesterIdNot(any(), any())).thenReturn(List.of(request));
         when(requestMapper.convertToDto(request)).thenReturn(requestDto);
-        when(itemService.getAllByRequestId(anyLong())).thenReturn(List.of(item, item2));
+        when(itemService.getAllByRequestIdIn(Set.of(1L))).thenReturn(List.of(item, item2));
 
         List<ItemRequestDto> requests = requestService.getAllExceptRequester(1L, 0, 10);
         assertThat(requests).hasSize(1);
         assertThat(requests.get(0)).usingRecursiveComparison().isEqualTo(requestDto);
+        assertThat(requests.get(0).getItems()).containsExactly(item, item2);
         verify(repository, times(1)).findAllByRequesterIdNot(any(), any());
     }
 
     @Test
     public void getAllExceptRequesterWithoutUserExist() {
-        when(userService.getUserById(any())).thenReturn(null);
+        when(userService.existsById(any())).thenReturn(false);
 
         assertThatThrownBy(() ->
                 requestService.getAllExceptRequester(1L, 0, 10))
@@ -121,7 +124,7 @@ public class ItemRequestServiceTest {
         ItemDto item = new ItemDto(1L, "item", "desc", true, 1L);
         ItemDto item2 = new ItemDto(2L, "item2", "desc2", true, 1L);
         ItemRequest request = new ItemRequest();
-        when(userService.getUserById(any())).thenReturn(new UserDto());
+        when(userService.existsById(any())).thenReturn(true);
         when(repository.findById(any())).thenReturn(Optional.of(request));
         when(requestMapper.convertToDto(request)).thenReturn(requestDto);
         when(itemService.getAllByRequestId(anyLong())).thenReturn(List.of(item, item2));
@@ -133,7 +136,7 @@ public class ItemRequestServiceTest {
 
     @Test
     public void getByIdWithoutUserExist() {
-        when(userService.getUserById(any())).thenReturn(null);
+        when(userService.existsById(any())).thenReturn(false);
 
         assertThatThrownBy(() ->
                 requestService.getById(1L, 1L))
@@ -142,7 +145,7 @@ public class ItemRequestServiceTest {
 
     @Test
     public void getByIdWithoutRequestExist() {
-        when(userService.getUserById(any())).thenReturn(new UserDto());
+        when(userService.existsById(any())).thenReturn(true);
         when(repository.findById(any())).thenReturn(Optional.empty());
 
         assertThatThrownBy(() ->
@@ -4,10 +4,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.RequestEntityCache;
 
 import java.util.List;
 import java.util.Optional;
@@ -30,6 +33,12 @@ public class UserServiceTest {
     @Mock
     private UserRepository repository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private RequestEntityCache requestCache;
+
     @Test
     public void addUser() {
         UserDto userDto = new UserDto(1L, "user", "qwe@mail.com");
@@ -164,6 +173,7 @@ public class UserServiceTest {
         userService.removeUser(1L);
 
         verify(repository, times(1)).deleteById(any());
+        verify(eventPublisher, times(1)).publishEvent(any(UserRemovedEvent.class));
     }
 
     @Test
@@ -174,4 +184,14 @@ public class UserServiceTest {
                 userService.removeUser(1L))
                 .isInstanceOf(ObjectNotFoundException.class);
     }
+
+    @Test
+    public void existsById() {
+        when(repository.existsById(1L)).thenReturn(true);
+        when(repository.existsById(2L)).thenReturn(false);
+
+        assertThat(userService.existsById(1L)).isTrue();
+        assertThat(userService.existsById(2L)).isFalse();
+        verify(repository, never()).findById(any());
+    }
 }
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds a freshly created schema for benchmarks and load runs. Everything scales with the number of bookings
+ * unless the catalog size is given: the lower half of the users own the items, the upper half book them, and every other booking belongs to one
+ * heavy booker, so deep pages exist. Ids are assumed to start at 1, so seeding refuses a non-empty database and
+ * checks the ids it got.
+ */
+public class DataSeeder {
+
+    public static final String[] WORDS = {"drill", "saw", "hammer", "ladder", "tent", "bike", "kayak", "camera",
+        "projector", "mixer", "drone", "grill"};
+
+    private static final String[] STATUSES = {"WAITING", "APPROVED", "REJECTED", "APPROVED"};
+    private static final int BATCH = 1000;
+    private static final int ITEMS_PER_REQUEST = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalDateTime now;
+    private final int bookings;
+    private final int users;
+    private final int items;
+    private final int requests;
+
+    public DataSeeder(JdbcTemplate jdbcTemplate, LocalDateTime now, int bookings) {
+        this(jdbcTemplate, now, bookings, Math.max(10, bookings / 10));
+    }
+
+    public DataSeeder(JdbcTemplate jdbcTemplate, LocalDateTime now, int bookings, int items) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.now = now;
+        this.bookings = bookings;
+        this.users = Math.max(10, bookings / 100);
+        this.items = items;
+        this.requests = items / ITEMS_PER_REQUEST;
+    }
+
+    public void seed() {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        if (existing == null || existing > 0) {
+            throw new IllegalStateException("База для заполнения не пуста: пользователей " + existing);
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= users; i++) {
+            rows.add(new Object[]{"user" + i, "user" + i + "@mail.ru"});
+        }
+        insert("INSERT INTO users (name, email) VALUES (?, ?)", rows);
+        checkIds("users", "user_id", users);
+
+        for (int i = 1; i <= requests; i++) {
+            rows.add(new Object[]{"need a " + WORDS[i % WORDS.length], bookerOf(i), timestamp(-i)});
+        }
+        insert("INSERT INTO requests (description, requester_id, create_date) VALUES (?, ?, ?)", rows);
+        checkIds("requests", "request_id", requests);
+
+        for (int i = 1; i <= items; i++) {
+            String word = WORDS[i % WORDS.length];
+            rows.add(new Object[]{word + " " + i, "a " + word + " for rent, number " + i, ownerOf(i),
+                    i % ITEMS_PER_REQUEST == 0 ? i / ITEMS_PER_REQUEST : null});
+        }
+        insert("INSERT INTO items (name, description, is_available, owner_id, request_id) VALUES (?, ?, TRUE, ?, ?)",
+                rows);
+        checkIds("items", "item_id", items);
+
+        for (int i = 1; i <= bookings; i++) {
+            LocalDateTime start = now.plusHours(i - bookings / 2);
+            rows.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusMinutes(30)), itemOf(i),
+                    bookerOf(i), STATUSES[i / 2 % STATUSES.length], ownerOf(itemOf(i))});
+        }
+        insert("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status, owner_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+        checkIds("bookings", "booking_id", bookings);
+
+        for (int i = 1; i <= bookings / 10; i++) {
+            rows.add(new Object[]{"comment " + i, i % items + 1, heavyBooker(), Timestamp.valueOf(now.minusMinutes(i))});
+        }
+        insert("INSERT INTO comments (text, item_id, author_id, create_date) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    public int getBookings() {
+        return bookings;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getItems() {
+        return items;
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    public int getOwners() {
+        return users / 2;
+    }
+
+    public int ownerOf(int item) {
+        return 1 + item % getOwners();
+    }
+
+    public int itemOf(int booking) {
+        return booking % items + 1;
+    }
+
+    public int bookerOf(int booking) {
+        return booking % 2 == 0 ? heavyBooker() : heavyBooker() + booking % (users - getOwners());
+    }
+
+    public int heavyBooker() {
+        return getOwners() + 1;
+    }
+
+    private Timestamp timestamp(int days) {
+        return Timestamp.valueOf(now.plusDays(days));
+    }
+
+    private void checkIds(String table, String idColumn, int count) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(" + idColumn + ") FROM " + table, Long.class);
+        if (count > 0 && (maxId == null || maxId != count)) {
+            throw new IllegalStateException("Идентификаторы " + table + " начинаются не с 1: последний " + maxId +
+                    " при " + count + " строках");
+        }
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH)));
+        }
+        rows.clear();
+    }
+}
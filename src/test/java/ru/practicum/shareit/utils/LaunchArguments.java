@@ -0,0 +1,48 @@
+package ru.practicum.shareit.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Command line arguments for booting the application under a benchmark or load run. They are passed as
+ * arguments rather than builder defaults because application.properties outranks defaults, and its transaction
+ * TRACE logging would dominate every measurement.
+ */
+public final class LaunchArguments {
+
+    private static final List<String> QUIET = List.of(
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN",
+            "--logging.level.ru.practicum.shareit=WARN",
+            "--logging.level.org.springframework.orm.jpa=WARN",
+            "--logging.level.org.springframework.transaction=WARN",
+            "--logging.level.org.springframework.transaction.interceptor=WARN",
+            "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+
+    private LaunchArguments() {
+    }
+
+    /**
+     * Prepends the quiet defaults that the given arguments do not set themselves: Spring joins repeated keys
+     * with a comma instead of letting the last one win.
+     */
+    public static String[] quiet(String... arguments) {
+        Set<String> keys = Arrays.stream(arguments).map(LaunchArguments::key).collect(Collectors.toSet());
+        List<String> all = new ArrayList<>();
+        for (String argument : QUIET) {
+            if (!keys.contains(key(argument))) {
+                all.add(argument);
+            }
+        }
+        all.addAll(Arrays.asList(arguments));
+        return all.toArray(new String[0]);
+    }
+
+    private static String key(String argument) {
+        int separator = argument.indexOf('=');
+        return separator < 0 ? argument : argument.substring(0, separator);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogSummaryTest {
+
+    @Test
+    public void writesSizeAndAllIdsOfShortList() {
+        List<User> users = List.of(new User(1L, "name", "a@mail.ru"), new User(2L, "name2", "b@mail.ru"));
+
+        assertThat(LogSummary.ids(users, User::getId)).hasToString("2 [1, 2]");
+        assertThat(LogSummary.ids(List.<User>of(), User::getId)).hasToString("0 []");
+    }
+
+    @Test
+    public void boundsLongList() {
+        List<Long> ids = LongStream.rangeClosed(1, 1000).boxed().collect(Collectors.toList());
+
+        assertThat(LogSummary.ids(ids, id -> id)).hasToString("1000 [1, 2, 3, 4, 5, 6, 7, 8, 9, 10, ...]");
+    }
+
+    @Test
+    public void formatsOnlyWhenWritten() {
+        AtomicInteger calls = new AtomicInteger();
+        Object summary = LogSummary.ids(List.of(1L, 2L), id -> calls.incrementAndGet());
+
+        assertThat(calls).hasValue(0);
+        summary.toString();
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    public void entityToStringSkipsAssociations() {
+        User owner = new User(1L, "owner", "owner@mail.ru");
+        Item item = new Item(1L, "drill", "description", true, owner, null);
+        Booking booking = new Booking(1L, LocalDateTime.now(), LocalDateTime.now(), item,
+                new User(2L, "booker", "booker@mail.ru"), BookingStatus.WAITING, 1L);
+
+        assertThat(item.toString()).doesNotContain("owner@mail.ru");
+        assertThat(booking.toString()).doesNotContain("drill").doesNotContain("booker@mail.ru");
+    }
+}
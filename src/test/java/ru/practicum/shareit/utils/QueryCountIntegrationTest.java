@@ -0,0 +1,370 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.ItemSearchCache;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.item.ItemSuggestIndex;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budget of every endpoint, counted at the data source against a fixture of a few hundred rows, so
+ * JdbcTemplate batches count as well as Hibernate queries.
+ * A budget that grows with the fixture is an N+1; the per-endpoint report is logged after the run.
+ */
+@Slf4j
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.jpa.open-in-view=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Sql(scripts = "/schema.sql")
+@Sql(scripts = "/delete-data.sql", executionPhase = AFTER_TEST_METHOD)
+public class QueryCountIntegrationTest {
+
+    private static final int USERS = 20;
+    private static final int REQUESTS = 20;
+    private static final int ITEMS = 40;
+    private static final int OWNER_ITEMS = 20;
+    private static final int BOOKINGS = 200;
+    private static final int COMMENTS = 100;
+    private static final Map<String, Long> REPORT = new TreeMap<>();
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private BookingIntervalIndex intervalIndex;
+    @Autowired
+    private ItemSearchIndex searchIndex;
+    @Autowired
+    private ItemSearchCache searchCache;
+    @Autowired
+    private ItemSuggestIndex suggestIndex;
+
+    @BeforeEach
+    public void setUp() {
+        intervalIndex.invalidateAll();
+        searchIndex.invalidate();
+        searchCache.clear();
+        suggestIndex.invalidate();
+        insertFixture();
+    }
+
+    @AfterAll
+    public static void printReport() {
+        StringBuilder report = new StringBuilder("Statements per endpoint:");
+        REPORT.forEach((endpoint, statements) ->
+                report.append(String.format("%n%-48s %3d", endpoint, statements)));
+        log.info(report.toString());
+    }
+
+    @Test
+    public void addUser() throws Exception {
+        assertBudget("POST /users", post("/users", new UserDto(null, "new", "new@qwerty.com"), null), 1);
+    }
+
+    @Test
+    public void updateUser() throws Exception {
+        assertBudget("PATCH /users/{id}", patch("/users/2", new UserDto(null, "renamed", null), null), 3);
+    }
+
+    @Test
+    public void getUser() throws Exception {
+        assertBudget("GET /users/{id}", get("/users/2", null), 1);
+    }
+
+    @Test
+    public void getUsers() throws Exception {
+        assertBudget("GET /users", get("/users", null), 1);
+    }
+
+    @Test
+    public void removeUser() throws Exception {
+        assertBudget("DELETE /users/{id}", MockMvcRequestBuilders.delete("/users/" + USERS), 3);
+    }
+
+    @Test
+    public void addItem() throws Exception {
+        assertBudget("POST /items", post("/items", new ItemDto(null, "drill", "desc", true, null), 1L), 2);
+    }
+
+    @Test
+    public void updateItem() throws Exception {
+        assertBudget("PATCH /items/{id}", patch("/items/1", new ItemDto(null, "hammer", null, null, null), 1L), 4);
+    }
+
+    @Test
+    public void getItemByOwner() throws Exception {
+        assertBudget("GET /items/{id} (owner)", get("/items/1", 1L), 3);
+    }
+
+    @Test
+    public void getItemByOther() throws Exception {
+        assertBudget("GET /items/{id} (other)", get("/items/1", 2L), 2);
+    }
+
+    @Test
+    public void getItemsByOwner() throws Exception {
+        assertBudget("GET /items", get("/items", 1L), 4);
+    }
+
+    @Test
+    public void searchItems() throws Exception {
+        assertBudget("GET /items/search", get("/items/search?text=drill", 1L), 1);
+    }
+
+    @Test
+    public void searchItemsByRelevance() throws Exception {
+        assertBudget("GET /items/search?sort=relevance", get("/items/search?text=drill&sort=relevance", 1L), 1);
+    }
+
+    @Test
+    public void searchItemsFuzzy() throws Exception {
+        assertBudget("GET /items/search?fuzzy=true", get("/items/search?text=dril&fuzzy=true", 1L), 1);
+    }
+
+    @Test
+    public void suggestItems() throws Exception {
+        assertBudget("GET /items/suggest", get("/items/suggest?prefix=dr", 1L), 1);
+    }
+
+    @Test
+    public void addComment() throws Exception {
+        assertBudget("POST /items/{id}/comment",
+                post("/items/4/comment", new CommentDto(null, "text", null, null), 2L), 4);
+        assertThat(((StatementCountingDataSource) dataSource).getStatements())
+                .noneMatch(sql -> sql.toLowerCase().contains("count("));
+    }
+
+    @Test
+    public void getComments() throws Exception {
+        assertBudget("GET /items/{id}/comments", get("/items/1/comments", 1L), 3);
+    }
+
+    @Test
+    public void addBooking() throws Exception {
+        assertBudget("POST /bookings", post("/bookings", booking(1L, 30), 2L), 4);
+    }
+
+    @Test
+    public void addBookings() throws Exception {
+        assertBudget("POST /bookings/batch", post("/bookings/batch", List.of(booking(2L, 30), booking(3L, 30)), 2L), 5);
+    }
+
+    @Test
+    public void approveBooking() throws Exception {
+        assertBudget("PATCH /bookings/{id}", patch("/bookings/120?approved=true", null, 1L), 2);
+    }
+
+    @Test
+    public void approveBookings() throws Exception {
+        assertBudget("PATCH /bookings/batch", patch("/bookings/batch?approved=true", List.of(124L, 128L), 1L), 3);
+    }
+
+    @Test
+    public void subscribe() throws Exception {
+        assertBudget("GET /bookings/stream", get("/bookings/stream", 2L).accept(MediaType.TEXT_EVENT_STREAM), 1);
+    }
+
+    @Test
+    public void getBooking() throws Exception {
+        assertBudget("GET /bookings/{id}", get("/bookings/120", 1L), 1);
+    }
+
+    @Test
+    public void getBookingsByBooker() throws Exception {
+        assertBudget("GET /bookings", get("/bookings", 2L), 2);
+    }
+
+    @Test
+    public void getBookingsByBookerAfterCursor() throws Exception {
+        assertBudget("GET /bookings?cursor", get("/bookings?cursor=" + cursor(), 2L), 2);
+    }
+
+    @Test
+    public void getCompactBookingsByBooker() throws Exception {
+        assertBudget("GET /bookings?view=compact", get("/bookings?view=compact", 2L), 2);
+    }
+
+    @Test
+    public void getBookingsByOwner() throws Exception {
+        assertBudget("GET /bookings/owner", get("/bookings/owner", 1L), 3);
+    }
+
+    @Test
+    public void getBookingsByOwnerAfterCursor() throws Exception {
+        assertBudget("GET /bookings/owner?cursor", get("/bookings/owner?cursor=" + cursor(), 1L), 2);
+    }
+
+    @Test
+    public void getCompactBookingsByOwner() throws Exception {
+        assertBudget("GET /bookings/owner?view=compact", get("/bookings/owner?view=compact", 1L), 2);
+    }
+
+    @Test
+    public void addRequest() throws Exception {
+        assertBudget("POST /requests", post("/requests", new ItemRequestDto(null, "need a drill", null, null), 2L), 2);
+    }
+
+    @Test
+    public void getRequestsByRequester() throws Exception {
+        assertBudget("GET /requests", get("/requests", 2L), 3);
+    }
+
+    @Test
+    public void getRequestsOfOthers() throws Exception {
+        assertBudget("GET /requests/all", get("/requests/all", 1L), 3);
+    }
+
+    @Test
+    public void getRequest() throws Exception {
+        assertBudget("GET /requests/{id}", get("/requests/1", 1L), 3);
+    }
+
+    private void assertBudget(String endpoint, MockHttpServletRequestBuilder request, long budget) throws Exception {
+        StatementCountingDataSource counter = (StatementCountingDataSource) dataSource;
+        counter.clear();
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+        long statements = counter.getExecutionCount();
+        REPORT.put(endpoint, statements);
+        assertThat(statements).as("Statements of %s", endpoint).isEqualTo(budget);
+    }
+
+    private void insertFixture() {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{"user" + i, "user" + i + "@qwerty.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email) VALUES (?, ?)", users);
+
+        List<Object[]> requests = new ArrayList<>();
+        for (int i = 1; i <= REQUESTS; i++) {
+            requests.add(new Object[]{"request" + i, i <= REQUESTS / 2 ? 2 : 3, timestamp(-i * 24)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO requests (description, requester_id, create_date) VALUES (?, ?, ?)",
+                requests);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 1; i <= ITEMS; i++) {
+            items.add(new Object[]{(i % 2 == 0 ? "drill " : "saw ") + i, "tool " + i, ownerOf(i),
+                    i > OWNER_ITEMS ? i - OWNER_ITEMS : null});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (name, description, is_available, owner_id, request_id) " +
+                "VALUES (?, ?, TRUE, ?, ?)", items);
+
+        List<Object[]> bookings = new ArrayList<>();
+        String[] statuses = {"WAITING", "APPROVED", "REJECTED", "APPROVED"};
+        for (int i = 1; i <= BOOKINGS; i++) {
+            int item = i % ITEMS + 1;
+            int hours = (i - BOOKINGS / 2) * 2;
+            bookings.add(new Object[]{timestamp(hours), timestamp(hours + 1), item, i % 3 == 0 ? 2 : 4 + i % 16,
+                    statuses[i % 4], ownerOf(item)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status, owner_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", bookings);
+
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 1; i <= COMMENTS; i++) {
+            comments.add(new Object[]{"comment" + i, i % 10 + 1, 2, timestamp(-i)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO comments (text, item_id, author_id, create_date) VALUES (?, ?, ?, ?)",
+                comments);
+    }
+
+    private static int ownerOf(int item) {
+        return item <= OWNER_ITEMS ? 1 : 3 + item % 17;
+    }
+
+    private Timestamp timestamp(int hours) {
+        return Timestamp.valueOf(now.plusHours(hours));
+    }
+
+    private BookingDto booking(Long itemId, int days) {
+        return new BookingDto(null, now.plusDays(days), now.plusDays(days).plusHours(1), null, itemId,
+                null, null, null);
+    }
+
+    private String cursor() {
+        return new BookingCursor(now.plusDays(1), (long) BOOKINGS).encode();
+    }
+
+    private MockHttpServletRequestBuilder get(String url, Long userId) {
+        return withUser(MockMvcRequestBuilders.get(url), userId).accept(MediaType.APPLICATION_JSON);
+    }
+
+    private MockHttpServletRequestBuilder post(String url, Object body, Long userId) throws Exception {
+        return withBody(withUser(MockMvcRequestBuilders.post(url), userId), body);
+    }
+
+    private MockHttpServletRequestBuilder patch(String url, Object body, Long userId) throws Exception {
+        return withBody(withUser(MockMvcRequestBuilders.patch(url), userId), body);
+    }
+
+    private MockHttpServletRequestBuilder withUser(MockHttpServletRequestBuilder request, Long userId) {
+        return userId == null ? request : request.header("X-Sharer-User-Id", userId);
+    }
+
+    private MockHttpServletRequestBuilder withBody(MockHttpServletRequestBuilder request, Object body)
+            throws Exception {
+        if (body != null) {
+            request.content(objectMapper.writeValueAsString(body)).contentType(MediaType.APPLICATION_JSON);
+        }
+        return request.accept(MediaType.APPLICATION_JSON);
+    }
+
+    @TestConfiguration
+    static class CountingConfiguration {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource && !(bean instanceof StatementCountingDataSource)
+                            ? new StatementCountingDataSource((DataSource) bean) : bean;
+                }
+            };
+        }
+    }
+}
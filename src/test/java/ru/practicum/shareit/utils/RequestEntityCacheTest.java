@@ -0,0 +1,69 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.user.User;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestEntityCacheTest {
+
+    private final RequestEntityCache cache = new RequestEntityCache();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void loadOncePerRequest() {
+        startRequest();
+        User user = cache.get(User.class, 1L, this::load).orElseThrow();
+
+        assertThat(cache.get(User.class, 1L, this::load)).containsSame(user);
+        assertThat(cache.get(User.class, 2L, this::load)).isEmpty();
+        assertThat(cache.get(User.class, 2L, this::load)).isEmpty();
+        assertThat(loads).hasValue(2);
+
+        startRequest();
+        cache.get(User.class, 1L, this::load);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    public void loadEveryTimeOutsideRequest() {
+        cache.put(User.class, 1L, new User(1L, "user", "mail@qwerty.com"));
+        cache.get(User.class, 1L, this::load);
+        cache.get(User.class, 1L, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void putAndEvict() {
+        startRequest();
+        User user = new User(1L, "updated", "mail@qwerty.com");
+        cache.put(User.class, 1L, user);
+
+        assertThat(cache.get(User.class, 1L, this::load)).containsSame(user);
+        cache.evict(User.class, 1L);
+        assertThat(cache.get(User.class, 1L, this::load).orElseThrow().getName()).isEqualTo("user");
+        assertThat(loads).hasValue(1);
+    }
+
+    private void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    private Optional<User> load(Long id) {
+        loads.incrementAndGet();
+        return id == 1L ? Optional.of(new User(id, "user", "mail@qwerty.com")) : Optional.empty();
+    }
+}
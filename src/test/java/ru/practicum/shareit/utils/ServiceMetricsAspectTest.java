@@ -0,0 +1,112 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Sql(scripts = "/schema.sql")
+@Sql(scripts = "/delete-data.sql", executionPhase = AFTER_TEST_METHOD)
+public class ServiceMetricsAspectTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    public void timesServiceMethodsWithBookingState() throws Exception {
+        String[] addUserTags = {"service", "UserServiceImpl", "method", "addUser", "state", ServiceMetricsAspect.NONE,
+            "exception", ServiceMetricsAspect.NONE};
+        String[] bookingsTags = {"service", "BookingServiceImpl", "method", "getByUserAndState", "state", "PAST"};
+        long addUserCount = count(addUserTags);
+        long bookingsCount = count(bookingsTags);
+
+        addUser();
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("state", "PAST"))
+                .andExpect(status().isOk());
+
+        assertThat(count(addUserTags)).isEqualTo(addUserCount + 1);
+        assertThat(count(bookingsTags)).isEqualTo(bookingsCount + 1);
+    }
+
+    @Test
+    public void tagsFailedCallsWithException() throws Exception {
+        String[] tags = {"service", "UserServiceImpl", "method", "getUserById", "exception", "ObjectNotFoundException"};
+        long before = count(tags);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/{id}", 100L))
+                .andExpect(status().isNotFound());
+
+        assertThat(count(tags)).isEqualTo(before + 1);
+    }
+
+    @Test
+    public void exposesServiceRepositoryAndCacheMetricsToPrometheus() throws Exception {
+        addUser();
+
+        String scrape = mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape).contains("shareit_service_seconds_count{exception=\"none\",method=\"addUser\"");
+        assertThat(scrape).contains("spring_data_repository_invocations_seconds_count");
+        assertThat(scrape).contains("repository=\"UserRepository\"");
+        assertThat(scrape).contains("cache_gets_total{cache=\"itemSearch\",result=\"hit\"");
+        assertThat(scrape).contains("cache_size{cache=\"itemSearch\"");
+    }
+
+    @Test
+    public void publishesOnlySloBucketsOfServiceAndRepositoryTimers() throws Exception {
+        addUser();
+
+        String scrape = mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape.lines()
+                .filter(line -> line.startsWith("shareit_service_seconds_bucket"))
+                .filter(line -> line.contains("method=\"addUser\"")))
+                .hasSize(6)
+                .anyMatch(line -> line.contains("le=\"0.05\""));
+        assertThat(scrape.lines()
+                .filter(line -> line.startsWith("spring_data_repository_invocations_seconds_bucket"))
+                .filter(line -> line.contains("repository=\"UserRepository\"") && line.contains("method=\"save\"")))
+                .hasSize(5)
+                .anyMatch(line -> line.contains("le=\"0.025\""));
+    }
+
+    private long count(String... tags) {
+        Timer timer = registry.find(ServiceMetricsAspect.METRIC).tags(tags).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private void addUser() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/users")
+                        .content(objectMapper.writeValueAsString(new UserDto(null, "name", "metrics@mail.ru")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+}
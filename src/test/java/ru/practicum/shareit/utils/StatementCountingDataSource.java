@@ -0,0 +1,109 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Counts and records statement executions below every JDBC client: Hibernate, JdbcTemplate and plain JDBC alike.
+ * A JDBC batch is one execution, as it is one round trip.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private final Queue<String> executions = new ConcurrentLinkedQueue<>();
+
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    public long getExecutionCount() {
+        return executions.size();
+    }
+
+    /**
+     * SQL of the executions since the last {@link #clear()}, in order; a batch of plain statements is joined.
+     */
+    public List<String> getStatements() {
+        return List.copyOf(executions);
+    }
+
+    public void clear() {
+        executions.clear();
+    }
+
+    private Connection connection(Connection connection) {
+        return proxy(Connection.class, connection, (method, args, result) -> {
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            if (result instanceof CallableStatement) {
+                return statement(CallableStatement.class, (CallableStatement) result, sql);
+            }
+            if (result instanceof PreparedStatement) {
+                return statement(PreparedStatement.class, (PreparedStatement) result, sql);
+            }
+            if (result instanceof Statement) {
+                return statement(Statement.class, (Statement) result, null);
+            }
+            return result;
+        });
+    }
+
+    private <T extends Statement> T statement(Class<T> type, T statement, String preparedSql) {
+        List<String> batch = new ArrayList<>();
+        return proxy(type, statement, (method, args, result) -> {
+            if (preparedSql == null && method.getName().equals("addBatch")) {
+                batch.add((String) args[0]);
+            } else if (preparedSql == null && method.getName().equals("clearBatch")) {
+                batch.clear();
+            } else if (method.getName().startsWith("execute")) {
+                if (preparedSql != null) {
+                    executions.add(preparedSql);
+                } else if (args != null && args.length > 0) {
+                    executions.add((String) args[0]);
+                } else {
+                    executions.add(String.join(";\n", batch));
+                    batch.clear();
+                }
+            }
+            return result;
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, T target, ResultMapper mapper) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            try {
+                return mapper.map(method, args, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private interface ResultMapper {
+
+        Object map(Method method, Object[] args, Object result);
+    }
+}